@@ -16,14 +16,21 @@
  */
 package org.sonar.java.cfg;
 
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.plugins.java.api.cfg.ControlFlowGraph;
 import org.sonar.plugins.java.api.semantic.Symbol;
@@ -37,73 +44,145 @@ import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.Tree.Kind;
 import org.sonar.plugins.java.api.tree.VariableTree;
 import org.sonarsource.analyzer.commons.collections.ListUtils;
-import org.sonarsource.analyzer.commons.collections.SetUtils;
 
+/**
+ * Live variables of a method, computed with bitsets: the local variables of the method are numbered densely, and the sets of the
+ * analysis are arrays of words indexed by these numbers, one array per block indexed by block id.
+ */
 public class SELiveVariables {
 
   private final ControlFlowGraph cfg;
-  private final Map<ControlFlowGraph.Block, Set<Symbol>> out = new HashMap<>();
-  private final Map<ControlFlowGraph.Block, Set<Symbol>> in = new HashMap<>();
+  private final Map<Symbol, Integer> indexBySymbol = new HashMap<>();
+  private final List<Symbol> symbols = new ArrayList<>();
+  private final ControlFlowGraph.Block[] blocksById;
+  private final long[][] out;
+  private final long[][] in;
+  private LiveSymbols[] outViews;
 
   private SELiveVariables(ControlFlowGraph cfg) {
     this.cfg = cfg;
+    int maxBlockId = -1;
+    for (ControlFlowGraph.Block block : cfg.blocks()) {
+      maxBlockId = Math.max(maxBlockId, block.id());
+    }
+    blocksById = new ControlFlowGraph.Block[maxBlockId + 1];
+    for (ControlFlowGraph.Block block : cfg.blocks()) {
+      blocksById[block.id()] = block;
+    }
+    out = new long[maxBlockId + 1][];
+    in = new long[maxBlockId + 1][];
   }
 
-  private void analyzeControlFlowGraph(Map<ControlFlowGraph.Block, Set<Symbol>> in, Map<ControlFlowGraph.Block, Set<Symbol>> kill, Map<ControlFlowGraph.Block, Set<Symbol>> gen) {
-    Deque<ControlFlowGraph.Block> workList = new LinkedList<>();
-    workList.addAll(cfg.reversedBlocks());
+  private void analyzeControlFlowGraph(long[][] kill, long[][] gen) {
+    int words = words();
+    for (ControlFlowGraph.Block block : cfg.reversedBlocks()) {
+      out[block.id()] = new long[words];
+    }
+    Deque<ControlFlowGraph.Block> workList = new ArrayDeque<>(cfg.reversedBlocks());
+    boolean[] inWorkList = new boolean[blocksById.length];
+    workList.forEach(block -> inWorkList[block.id()] = true);
+    long[] newIn = new long[words];
     while (!workList.isEmpty()) {
       ControlFlowGraph.Block block = workList.removeFirst();
+      int id = block.id();
+      inWorkList[id] = false;
 
-      Set<Symbol> blockOut = out.computeIfAbsent(block, k -> new HashSet<>());
-      block.successors().stream().map(in::get).filter(Objects::nonNull).forEach(blockOut::addAll);
-      block.exceptions().stream().map(in::get).filter(Objects::nonNull).forEach(blockOut::addAll);
+      long[] blockOut = out[id];
+      block.successors().forEach(successor -> or(blockOut, in[successor.id()]));
+      block.exceptions().forEach(successor -> or(blockOut, in[successor.id()]));
       // in = gen and (out - kill)
-      Set<Symbol> newIn = new HashSet<>(gen.get(block));
-      newIn.addAll(SetUtils.difference(blockOut, kill.get(block)));
+      long[] blockKill = kill[id];
+      long[] blockGen = gen[id];
+      for (int i = 0; i < words; i++) {
+        newIn[i] = blockGen[i] | (blockOut[i] & ~blockKill[i]);
+      }
 
-      if (newIn.equals(in.get(block))) {
+      long[] blockIn = in[id];
+      if (blockIn != null && Arrays.equals(newIn, blockIn)) {
         continue;
       }
-      in.put(block, newIn);
-      block.predecessors().forEach(workList::addLast);
+      in[id] = newIn.clone();
+      for (ControlFlowGraph.Block predecessor : block.predecessors()) {
+        if (!inWorkList[predecessor.id()]) {
+          inWorkList[predecessor.id()] = true;
+          workList.addLast(predecessor);
+        }
+      }
     }
   }
 
+  private static void or(long[] target, @Nullable long[] source) {
+    if (source != null) {
+      for (int i = 0; i < target.length; i++) {
+        target[i] |= source[i];
+      }
+    }
+  }
+
+  private int words() {
+    return (symbols.size() + 63) >>> 6;
+  }
+
   /**
    * Returns SELiveVariables object with information concerning local variables and parameters
    */
   public static SELiveVariables analyze(ControlFlowGraph cfg) {
     SELiveVariables liveVariables = new SELiveVariables(cfg);
     // Generate kill/gen for each block in isolation
-    Map<ControlFlowGraph.Block, Set<Symbol>> kill = new HashMap<>();
-    Map<ControlFlowGraph.Block, Set<Symbol>> gen = new HashMap<>();
+    int nbBlocks = liveVariables.blocksById.length;
+    BitSet[] blockKills = new BitSet[nbBlocks];
+    BitSet[] blockGens = new BitSet[nbBlocks];
     for (ControlFlowGraph.Block block : liveVariables.cfg.reversedBlocks()) {
-      Set<Symbol> blockKill = new HashSet<>();
-      Set<Symbol> blockGen = new HashSet<>();
+      BitSet blockKill = new BitSet();
+      BitSet blockGen = new BitSet();
       liveVariables.processBlockElements(block, blockKill, blockGen);
-      kill.put(block, blockKill);
-      gen.put(block, blockGen);
+      blockKills[block.id()] = blockKill;
+      blockGens[block.id()] = blockGen;
+    }
+    // symbols are all known once every block is processed: sets can now have a fixed size
+    int words = liveVariables.words();
+    long[][] kill = new long[nbBlocks][];
+    long[][] gen = new long[nbBlocks][];
+    for (ControlFlowGraph.Block block : liveVariables.cfg.reversedBlocks()) {
+      kill[block.id()] = Arrays.copyOf(blockKills[block.id()].toLongArray(), words);
+      gen[block.id()] = Arrays.copyOf(blockGens[block.id()].toLongArray(), words);
     }
-    liveVariables.analyzeControlFlowGraph(liveVariables.in, kill, gen);
+    liveVariables.analyzeControlFlowGraph(kill, gen);
     // out of exit block are empty by definition.
-    if (!liveVariables.out.get(liveVariables.cfg.reversedBlocks().get(0)).isEmpty()) {
-      throw new IllegalStateException("Out of exit block should be empty");
+    ControlFlowGraph.Block exitBlock = liveVariables.cfg.reversedBlocks().get(0);
+    for (long word : liveVariables.out[exitBlock.id()]) {
+      if (word != 0L) {
+        throw new IllegalStateException("Out of exit block should be empty");
+      }
     }
 
-    // Make things immutable.
-    for (Map.Entry<ControlFlowGraph.Block, Set<Symbol>> blockSetEntry : liveVariables.out.entrySet()) {
-      blockSetEntry.setValue(Collections.unmodifiableSet(blockSetEntry.getValue()));
+    liveVariables.outViews = new LiveSymbols[nbBlocks];
+    for (ControlFlowGraph.Block block : liveVariables.cfg.reversedBlocks()) {
+      liveVariables.outViews[block.id()] = liveVariables.new LiveSymbols(liveVariables.out[block.id()]);
     }
-
     return liveVariables;
   }
 
+  /**
+   * @return an unmodifiable view of the variables live at the exit of the given block, or null if the block is not part of the CFG
+   */
+  @CheckForNull
   public Set<Symbol> getOut(ControlFlowGraph.Block block) {
-    return out.get(block);
+    int id = block.id();
+    if (id < 0 || id >= blocksById.length || blocksById[id] != block) {
+      return null;
+    }
+    return outViews[id];
+  }
+
+  private int index(Symbol symbol) {
+    return indexBySymbol.computeIfAbsent(symbol, s -> {
+      symbols.add(s);
+      return symbols.size() - 1;
+    });
   }
 
-  private static void processAssignment(AssignmentExpressionTree element, Set<Symbol> blockKill, Set<Symbol> blockGen, Set<Tree> assignmentLHS) {
+  private void processAssignment(AssignmentExpressionTree element, BitSet blockKill, BitSet blockGen, Set<Tree> assignmentLHS) {
     Symbol symbol = null;
     ExpressionTree lhs = element.variable();
     if (lhs.is(Kind.IDENTIFIER)) {
@@ -113,12 +192,13 @@ public class SELiveVariables {
 
     if (symbol != null && includeSymbol(symbol)) {
       assignmentLHS.add(lhs);
-      blockGen.remove(symbol);
-      blockKill.add(symbol);
+      int index = index(symbol);
+      blockGen.clear(index);
+      blockKill.set(index);
     }
   }
 
-  private void processBlockElements(ControlFlowGraph.Block block, Set<Symbol> blockKill, Set<Symbol> blockGen) {
+  private void processBlockElements(ControlFlowGraph.Block block, BitSet blockKill, BitSet blockGen) {
     // process elements from bottom to top
     Set<Tree> assignmentLHS = new HashSet<>();
     for (Tree element : ListUtils.reverse(block.elements())) {
@@ -130,17 +210,16 @@ public class SELiveVariables {
           processIdentifier((IdentifierTree) element, blockGen, assignmentLHS);
           break;
         case VARIABLE:
-          blockKill.add(((VariableTree) element).symbol());
-          blockGen.remove(((VariableTree) element).symbol());
+          processVariable((VariableTree) element, blockKill, blockGen);
           break;
         case LAMBDA_EXPRESSION:
-          blockGen.addAll(getUsedVariables(((LambdaExpressionTree) element).body(), cfg.methodSymbol()));
+          addAll(blockGen, getUsedVariables(((LambdaExpressionTree) element).body(), cfg.methodSymbol()));
           break;
         case METHOD_REFERENCE:
-          blockGen.addAll(getUsedVariables(((MethodReferenceTree) element).expression(), cfg.methodSymbol()));
+          addAll(blockGen, getUsedVariables(((MethodReferenceTree) element).expression(), cfg.methodSymbol()));
           break;
         case NEW_CLASS:
-          blockGen.addAll(getUsedVariables(((NewClassTree) element).classBody(), cfg.methodSymbol()));
+          addAll(blockGen, getUsedVariables(((NewClassTree) element).classBody(), cfg.methodSymbol()));
           break;
         default:
           // Ignore other kind of elements, no change of gen/kill
@@ -148,10 +227,22 @@ public class SELiveVariables {
     }
   }
 
-  private static void processIdentifier(IdentifierTree element, Set<Symbol> blockGen, Set<Tree> assignmentLHS) {
+  private void processVariable(VariableTree element, BitSet blockKill, BitSet blockGen) {
+    int index = index(element.symbol());
+    blockKill.set(index);
+    blockGen.clear(index);
+  }
+
+  private void processIdentifier(IdentifierTree element, BitSet blockGen, Set<Tree> assignmentLHS) {
     Symbol symbol = element.symbol();
     if (!assignmentLHS.contains(element) && includeSymbol(symbol)) {
-      blockGen.add(symbol);
+      blockGen.set(index(symbol));
+    }
+  }
+
+  private void addAll(BitSet blockGen, Set<Symbol> usedVariables) {
+    for (Symbol symbol : usedVariables) {
+      blockGen.set(index(symbol));
     }
   }
 
@@ -168,4 +259,59 @@ public class SELiveVariables {
     return extractorFromClass.usedVariables();
   }
 
+  /**
+   * Set of symbols read from the words of a bitset, without copying them.
+   */
+  private final class LiveSymbols extends AbstractSet<Symbol> {
+    private final long[] words;
+    private final int size;
+
+    private LiveSymbols(long[] words) {
+      this.words = words;
+      int count = 0;
+      for (long word : words) {
+        count += Long.bitCount(word);
+      }
+      size = count;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      Integer index = indexBySymbol.get(o);
+      return index != null && (words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public Iterator<Symbol> iterator() {
+      return new Iterator<>() {
+        private int wordIndex = 0;
+        private long remaining = words.length == 0 ? 0L : words[0];
+
+        @Override
+        public boolean hasNext() {
+          while (remaining == 0L && wordIndex < words.length - 1) {
+            wordIndex++;
+            remaining = words[wordIndex];
+          }
+          return remaining != 0L;
+        }
+
+        @Override
+        public Symbol next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          int bit = Long.numberOfTrailingZeros(remaining);
+          remaining &= remaining - 1;
+          return symbols.get((wordIndex << 6) + bit);
+        }
+      };
+    }
+  }
+
 }
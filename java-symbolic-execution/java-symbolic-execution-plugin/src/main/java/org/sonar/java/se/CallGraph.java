@@ -0,0 +1,232 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.sonar.plugins.java.api.semantic.Symbol;
+import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.MethodInvocationTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
+
+/**
+ * Calls between the methods of a file which can not be overridden, i.e. the calls for which the behavior of the callee is used.
+ * Exploring callees before their callers avoids computing behaviors on demand from a nested walker, which keeps the exploded
+ * graph of the caller alive until the callee is done.
+ * Methods calling each other (strongly connected components of the graph) are scheduled together: exploring the first one of them
+ * computes the others on demand, and recursive calls rely on an incomplete behavior, as before.
+ */
+class CallGraph {
+
+  private final List<MethodTree> schedule = new ArrayList<>();
+  private final List<List<MethodTree>> components;
+  private final Map<MethodTree, Integer> componentOf = new HashMap<>();
+  // indexes of the components transitively called by each component, computed once when the graph is built
+  private final BitSet[] reachable;
+
+  private CallGraph(List<MethodTree> methods, Map<MethodTree, Set<MethodTree>> callees) {
+    components = new StronglyConnectedComponents(methods, callees).compute();
+    for (int i = 0; i < components.size(); i++) {
+      for (MethodTree method : components.get(i)) {
+        componentOf.put(method, i);
+        schedule.add(method);
+      }
+    }
+    // components come callees first: the components reachable from the callees of a component are known when reaching it
+    reachable = new BitSet[components.size()];
+    for (int i = 0; i < components.size(); i++) {
+      BitSet reached = new BitSet();
+      for (MethodTree member : components.get(i)) {
+        for (MethodTree callee : callees.get(member)) {
+          int calleeComponent = componentOf.get(callee);
+          if (calleeComponent != i && !reached.get(calleeComponent)) {
+            reached.set(calleeComponent);
+            reached.or(reachable[calleeComponent]);
+          }
+        }
+      }
+      reachable[i] = reached;
+    }
+  }
+
+  static CallGraph build(List<MethodTree> methods) {
+    Set<MethodTree> declaredMethods = new HashSet<>(methods);
+    Map<MethodTree, Set<MethodTree>> callees = new HashMap<>();
+    for (MethodTree method : methods) {
+      CalleesCollector collector = new CalleesCollector(declaredMethods);
+      method.accept(collector);
+      callees.put(method, collector.callees);
+    }
+    return new CallGraph(methods, callees);
+  }
+
+  /**
+   * All the methods, callees before their callers. Methods not calling each other keep the order of the file.
+   */
+  List<MethodTree> schedule() {
+    return schedule;
+  }
+
+  /**
+   * Methods transitively called by the given method which have to be explored before it, callees first.
+   * Methods of the same cycle as the given method are excluded.
+   */
+  List<MethodTree> calleesFirst(MethodTree method) {
+    Integer component = componentOf.get(method);
+    if (component == null) {
+      return List.of();
+    }
+    return reachable[component].stream().mapToObj(components::get).flatMap(List::stream).toList();
+  }
+
+  private static class CalleesCollector extends BaseTreeVisitor {
+
+    private final Set<MethodTree> declaredMethods;
+    private final Set<MethodTree> callees = new LinkedHashSet<>();
+    private boolean visitingMethod = false;
+
+    CalleesCollector(Set<MethodTree> declaredMethods) {
+      this.declaredMethods = declaredMethods;
+    }
+
+    @Override
+    public void visitMethod(MethodTree tree) {
+      // methods of nested classes have their own entry in the graph
+      if (!visitingMethod) {
+        visitingMethod = true;
+        super.visitMethod(tree);
+      }
+    }
+
+    @Override
+    public void visitClass(ClassTree tree) {
+      // calls from nested classes do not belong to the enclosing method
+    }
+
+    @Override
+    public void visitMethodInvocation(MethodInvocationTree tree) {
+      Symbol.MethodSymbol symbol = tree.methodSymbol();
+      if (!symbol.isUnknown() && SymbolicExecutionVisitor.methodCanNotBeOverridden(symbol)) {
+        MethodTree declaration = symbol.declaration();
+        if (declaration != null && declaredMethods.contains(declaration)) {
+          callees.add(declaration);
+        }
+      }
+      super.visitMethodInvocation(tree);
+    }
+  }
+
+  /**
+   * Tarjan's algorithm: components are produced in reverse topological order, i.e. callees first.
+   * The depth-first search keeps its own stack of calls, so that long chains of calls do not overflow the stack of the thread.
+   */
+  private static class StronglyConnectedComponents {
+
+    private final List<MethodTree> methods;
+    private final Map<MethodTree, Set<MethodTree>> callees;
+    private final Map<MethodTree, Integer> index = new HashMap<>();
+    private final Map<MethodTree, Integer> lowLink = new HashMap<>();
+    private final Deque<MethodTree> stack = new ArrayDeque<>();
+    private final Set<MethodTree> onStack = new HashSet<>();
+    private final Map<MethodTree, Integer> position = new HashMap<>();
+    private final List<List<MethodTree>> components = new ArrayList<>();
+
+    StronglyConnectedComponents(List<MethodTree> methods, Map<MethodTree, Set<MethodTree>> callees) {
+      this.methods = methods;
+      this.callees = callees;
+      for (int i = 0; i < methods.size(); i++) {
+        position.put(methods.get(i), i);
+      }
+    }
+
+    List<List<MethodTree>> compute() {
+      for (MethodTree method : methods) {
+        if (!index.containsKey(method)) {
+          strongConnect(method);
+        }
+      }
+      return components;
+    }
+
+    private void strongConnect(MethodTree root) {
+      Deque<Frame> frames = new ArrayDeque<>();
+      frames.push(enter(root));
+      while (!frames.isEmpty()) {
+        Frame frame = frames.peek();
+        if (frame.callees.hasNext()) {
+          MethodTree callee = frame.callees.next();
+          if (!index.containsKey(callee)) {
+            frames.push(enter(callee));
+          } else if (onStack.contains(callee)) {
+            lowLink.put(frame.method, Math.min(lowLink.get(frame.method), index.get(callee)));
+          }
+        } else {
+          frames.pop();
+          leave(frame.method);
+          Frame caller = frames.peek();
+          if (caller != null) {
+            lowLink.put(caller.method, Math.min(lowLink.get(caller.method), lowLink.get(frame.method)));
+          }
+        }
+      }
+    }
+
+    private Frame enter(MethodTree method) {
+      index.put(method, index.size());
+      lowLink.put(method, index.get(method));
+      stack.push(method);
+      onStack.add(method);
+      return new Frame(method, callees.get(method).iterator());
+    }
+
+    private void leave(MethodTree method) {
+      if (lowLink.get(method).equals(index.get(method))) {
+        List<MethodTree> component = new ArrayList<>();
+        MethodTree member;
+        do {
+          member = stack.pop();
+          onStack.remove(member);
+          component.add(member);
+        } while (member != method);
+        // members of a cycle are explored in the order of the file
+        component.sort(Comparator.comparing(position::get));
+        components.add(component);
+      }
+    }
+
+    private static class Frame {
+      private final MethodTree method;
+      private final Iterator<MethodTree> callees;
+
+      Frame(MethodTree method, Iterator<MethodTree> callees) {
+        this.method = method;
+        this.callees = callees;
+      }
+    }
+  }
+}
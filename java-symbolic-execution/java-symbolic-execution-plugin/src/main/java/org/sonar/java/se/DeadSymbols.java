@@ -0,0 +1,98 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.CheckForNull;
+import org.sonar.java.cfg.SELiveVariables;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph.Block;
+import org.sonar.plugins.java.api.semantic.Symbol;
+import org.sonar.plugins.java.api.tree.AssignmentExpressionTree;
+import org.sonar.plugins.java.api.tree.ExpressionTree;
+import org.sonar.plugins.java.api.tree.IdentifierTree;
+import org.sonar.plugins.java.api.tree.Tree;
+import org.sonar.plugins.java.api.tree.VariableTree;
+
+/**
+ * Local variables which die at the exit of each block, computed once from the live variables of the CFG so that the cleanup of
+ * program states at block exit only looks up their bindings.
+ * <p>
+ * When the exploration reaches a block through one of its successor edges, the state has been cleaned at the exit of the
+ * previous block: the only local variables it binds are live at the exit of one of its predecessors, or are bound in the block
+ * itself. Blocks reached another way (entry of the method, exceptional paths and exit paths) have no such bound.
+ */
+final class DeadSymbols {
+
+  private final Map<Block, Set<Symbol>> deadAtExit = new HashMap<>();
+
+  DeadSymbols(ControlFlowGraph cfg, SELiveVariables liveVariables) {
+    Map<Block, Set<Symbol>> liveOnEntry = new HashMap<>();
+    Set<Block> unboundBlocks = new HashSet<>();
+    unboundBlocks.add(cfg.entryBlock());
+    for (Block block : cfg.blocks()) {
+      for (Block successor : block.successors()) {
+        liveOnEntry.computeIfAbsent(successor, k -> new HashSet<>()).addAll(liveVariables.getOut(block));
+      }
+      unboundBlocks.addAll(block.exceptions());
+      if (block.exitBlock() != null) {
+        unboundBlocks.add(block.exitBlock());
+      }
+    }
+    for (Block block : cfg.blocks()) {
+      Set<Symbol> bound = liveOnEntry.get(block);
+      if (bound != null && !unboundBlocks.contains(block)) {
+        addBoundInBlock(block, bound);
+        bound.removeAll(liveVariables.getOut(block));
+        deadAtExit.put(block, bound);
+      }
+    }
+  }
+
+  private static void addBoundInBlock(Block block, Set<Symbol> bound) {
+    // every local variable read, assigned or declared in the block is bound when its element is executed
+    for (Tree element : block.elements()) {
+      Symbol symbol = null;
+      if (element.is(Tree.Kind.IDENTIFIER)) {
+        symbol = ((IdentifierTree) element).symbol();
+      } else if (element.is(Tree.Kind.VARIABLE)) {
+        symbol = ((VariableTree) element).symbol();
+      } else if (element.is(Tree.Kind.ASSIGNMENT)) {
+        // the identifier assigned by a simple assignment is not an element of the block
+        ExpressionTree variable = ((AssignmentExpressionTree) element).variable();
+        if (variable.is(Tree.Kind.IDENTIFIER)) {
+          symbol = ((IdentifierTree) variable).symbol();
+        }
+      }
+      if (symbol != null && symbol.isLocalVariable()) {
+        bound.add(symbol);
+      }
+    }
+  }
+
+  /**
+   * @return the local variables which can be bound at the exit of the given block and are not live anymore, or null when any local
+   * variable can be bound at its exit
+   */
+  @CheckForNull
+  Set<Symbol> atExit(Block block) {
+    return deadAtExit.get(block);
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time after which the symbolic execution of a method is stopped.
+ * It is checked cooperatively: by the {@link ExplodedGraphWalker} at each step, and by the {@link FlowComputation} started
+ * from the checks, which reads the deadline of the method being explored on the current thread.
+ */
+class Deadline {
+
+  static final Deadline NONE = new Deadline(0L, true);
+
+  private static final ThreadLocal<Deadline> CURRENT = ThreadLocal.withInitial(() -> NONE);
+
+  private final long nanoTime;
+  private final boolean unlimited;
+
+  private Deadline(long nanoTime, boolean unlimited) {
+    this.nanoTime = nanoTime;
+    this.unlimited = unlimited;
+  }
+
+  /**
+   * @param millis time budget, no deadline when zero or negative
+   */
+  static Deadline after(long millis) {
+    if (millis <= 0) {
+      return NONE;
+    }
+    return new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis), false);
+  }
+
+  Deadline earliest(Deadline other) {
+    if (unlimited) {
+      return other;
+    }
+    if (other.unlimited) {
+      return this;
+    }
+    // nanoTime values can only be compared through their difference
+    return nanoTime - other.nanoTime <= 0 ? this : other;
+  }
+
+  boolean isExpired() {
+    return !unlimited && System.nanoTime() - nanoTime >= 0;
+  }
+
+  /**
+   * @return the deadline of the method explored on the current thread
+   */
+  static Deadline current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * @return the previous deadline of the current thread, to be restored once the exploration is done
+   */
+  static Deadline enter(Deadline deadline) {
+    Deadline previous = CURRENT.get();
+    CURRENT.set(deadline);
+    return previous;
+  }
+
+  static void restore(Deadline previous) {
+    CURRENT.set(previous);
+  }
+}
@@ -16,13 +16,17 @@
  */
 package org.sonar.java.se;
 
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import org.sonar.java.Preconditions;
 
+import org.sonar.java.se.symbolicvalues.SymbolicValue;
 import org.sonar.java.se.xproc.MethodYield;
+import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.tree.Tree;
+import org.sonarsource.analyzer.commons.collections.PMap;
 
 import javax.annotation.Nullable;
 
@@ -35,27 +39,87 @@ import java.util.Set;
 
 public class ExplodedGraph {
 
-  private final Map<Node, Node> nodes = new HashMap<>();
-  private final Map<ProgramPoint, List<Node>> nodesByProgramPoint = new HashMap<>();
+  private final Map<ProgramPoint, NodesAtProgramPoint> nodes = new HashMap<>();
+  @Nullable
+  private final Map<ProgramPoint, Map<PMap<Symbol, SymbolicValue>, List<Node>>> nodesByBindings;
+  @Nullable
+  private final StateInterner interner;
+
+  public ExplodedGraph() {
+    this(false);
+  }
+
+  /**
+   * @param subsumptionIndex index nodes by program point and symbol bindings, to look for subsuming states
+   */
+  public ExplodedGraph(boolean subsumptionIndex) {
+    this(subsumptionIndex, false);
+  }
+
+  /**
+   * @param subsumptionIndex index nodes by program point and symbol bindings, to look for subsuming states
+   * @param hashConsing share the parts of the states of new nodes which are equal, see {@link StateInterner}
+   */
+  public ExplodedGraph(boolean subsumptionIndex, boolean hashConsing) {
+    nodesByBindings = subsumptionIndex ? new HashMap<>() : null;
+    interner = hashConsing ? new StateInterner() : null;
+  }
 
   /**
    * Returns node associated with given (programPoint,programState) pair. If no node for this pair exists, it is created.
    */
   public Node node(ProgramPoint programPoint, @Nullable ProgramState programState) {
-    Node result = new Node(programPoint, programState, this);
-    Node cached = nodes.get(result);
+    // looked up by program point then by state, so that no node is built when it already exists
+    NodesAtProgramPoint nodesAtProgramPoint = nodes.computeIfAbsent(programPoint, k -> new NodesAtProgramPoint());
+    Node cached = nodesAtProgramPoint.byState.get(programState);
     if (cached != null) {
       cached.isNew = false;
       return cached;
     }
+    ProgramState state = interner != null && programState != null ? programState.internParts(interner) : programState;
+    Node result = new Node(programPoint, state, nodesAtProgramPoint);
     result.isNew = true;
-    nodes.put(result, result);
-    nodesByProgramPoint.computeIfAbsent(programPoint, k -> new LinkedList<>()).add(result);
+    nodesAtProgramPoint.add(result);
+    if (nodesByBindings != null && state != null) {
+      nodesByBindings.computeIfAbsent(programPoint, k -> new HashMap<>())
+        .computeIfAbsent(state.values, k -> new ArrayList<>())
+        .add(result);
+    }
     return result;
   }
 
-  public Map<Node, Node> nodes() {
-    return nodes;
+  /**
+   * Only nodes with the same symbol bindings are candidates, see {@link ProgramState#isSubsumedBy(ProgramState)}.
+   * A node with the very same state is not considered as subsuming: it is found by {@link #node(ProgramPoint, ProgramState)}.
+   *
+   * @return true if an existing node at the same program point has a more general state than the given one
+   */
+  public boolean isSubsumed(ProgramPoint programPoint, ProgramState programState, boolean exitPath) {
+    Preconditions.checkState(nodesByBindings != null, "Exploded graph is not indexed for subsumption");
+    List<Node> candidates = nodesByBindings.getOrDefault(programPoint, Collections.emptyMap()).get(programState.values);
+    if (candidates == null) {
+      return false;
+    }
+    for (Node candidate : candidates) {
+      if (candidate.exitPath == exitPath && !programState.equals(candidate.programState) && programState.isSubsumedBy(candidate.programState)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Nodes of a program point, indexed by their state and in order of creation: a node knows its index, so that the other nodes
+   * of its program point are available without going through them.
+   */
+  private static final class NodesAtProgramPoint {
+    private final Map<ProgramState, Node> byState = new HashMap<>();
+    private final List<Node> nodes = new ArrayList<>();
+
+    private void add(Node node) {
+      byState.put(node.programState, node);
+      nodes.add(node);
+    }
   }
 
   public static final class Node {
@@ -64,18 +128,26 @@ public class ExplodedGraph {
     @Nullable
     public final ProgramState programState;
 
-    private final Map<Node, Edge> edges = new HashMap<>();
+    /**
+     * Edge to the parent of this node: most nodes have a single parent, their edges are only put in a map when there are more.
+     */
+    @Nullable
+    private Edge edge;
+    @Nullable
+    private Map<Node, Edge> edgesByParent;
 
     private boolean isNew;
     boolean exitPath = false;
     private final int hashcode;
-    private final ExplodedGraph explodedGraph;
+    private final List<Node> nodesAtProgramPoint;
+    private final int indexAtProgramPoint;
 
-    private Node(ProgramPoint programPoint, @Nullable ProgramState programState, ExplodedGraph explodedGraph) {
+    private Node(ProgramPoint programPoint, @Nullable ProgramState programState, NodesAtProgramPoint nodesAtProgramPoint) {
       Objects.requireNonNull(programPoint);
       this.programPoint = programPoint;
       this.programState = programState;
-      this.explodedGraph = explodedGraph;
+      this.nodesAtProgramPoint = nodesAtProgramPoint.nodes;
+      this.indexAtProgramPoint = nodesAtProgramPoint.nodes.size();
       hashcode = programPoint.hashCode() * 31 + (programState == null ? 0 : programState.hashCode());
     }
 
@@ -83,29 +155,63 @@ public class ExplodedGraph {
       if (parent == null) {
         return;
       }
-      Edge edge = edges.computeIfAbsent(parent, p -> new Edge(this, p));
+      Edge parentEdge = edgeTo(parent);
       if (methodYield != null) {
         Preconditions.checkState(parent.programPoint.syntaxTree().is(Tree.Kind.METHOD_INVOCATION), "Yield on edge where parent is not MIT");
-        edge.yields.add(methodYield);
+        parentEdge.addYield(methodYield);
       }
     }
 
+    private Edge edgeTo(Node parent) {
+      if (edgesByParent != null) {
+        return edgesByParent.computeIfAbsent(parent, p -> new Edge(this, p));
+      }
+      if (edge == null) {
+        edge = new Edge(this, parent);
+        return edge;
+      }
+      if (edge.parent.equals(parent)) {
+        return edge;
+      }
+      edgesByParent = new HashMap<>();
+      edgesByParent.put(edge.parent, edge);
+      edge = null;
+      return edgesByParent.computeIfAbsent(parent, p -> new Edge(this, p));
+    }
+
+    /**
+     * @return a view of the other nodes of the same program point, including the ones created afterwards
+     */
     public Collection<Node> siblings() {
-      Collection<Node> collection = explodedGraph.nodesByProgramPoint.getOrDefault(programPoint, Collections.emptyList());
-      collection.remove(this);
-      return collection;
+      return new AbstractList<>() {
+        @Override
+        public Node get(int index) {
+          return nodesAtProgramPoint.get(index < indexAtProgramPoint ? index : (index + 1));
+        }
+
+        @Override
+        public int size() {
+          return nodesAtProgramPoint.size() - 1;
+        }
+      };
     }
 
     @Nullable
     public Node parent() {
-      return parents().stream().findFirst().orElse(null);
+      if (edge != null) {
+        return edge.parent;
+      }
+      return edgesByParent == null ? null : edgesByParent.keySet().iterator().next();
     }
 
     /**
      * @return the ordered (by insertion) sets of parents
      */
     public Set<Node> parents() {
-      return edges.keySet();
+      if (edgesByParent != null) {
+        return edgesByParent.keySet();
+      }
+      return edge == null ? Collections.emptySet() : Collections.singleton(edge.parent);
     }
 
     @Override
@@ -128,7 +234,10 @@ public class ExplodedGraph {
     }
 
     public Collection<Edge> edges() {
-      return edges.values();
+      if (edgesByParent != null) {
+        return edgesByParent.values();
+      }
+      return edge == null ? Collections.emptyList() : Collections.singletonList(edge);
     }
 
     public boolean isNew() {
@@ -143,7 +252,8 @@ public class ExplodedGraph {
 
     private Set<LearnedConstraint> lc;
     private Set<LearnedAssociation> la;
-    private final Set<MethodYield> yields = new LinkedHashSet<>();
+    @Nullable
+    private Set<MethodYield> yields;
 
     private Edge(Node child, Node parent) {
       Preconditions.checkState(!child.equals(parent));
@@ -175,7 +285,14 @@ public class ExplodedGraph {
     }
 
     public Set<MethodYield> yields() {
-      return yields;
+      return yields == null ? Collections.emptySet() : yields;
+    }
+
+    private void addYield(MethodYield methodYield) {
+      if (yields == null) {
+        yields = new LinkedHashSet<>();
+      }
+      yields.add(methodYield);
     }
 
     @Override
@@ -20,11 +20,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -98,13 +96,7 @@ import static org.sonar.plugins.java.api.semantic.SymbolMetadata.NullabilityLeve
 
 public class ExplodedGraphWalker {
 
-  /**
-   * Arbitrary number to limit symbolic execution.
-   */
-  private static final int MAX_STEPS = 16_000;
   public static final int MAX_NESTED_BOOLEAN_STATES = 10_000;
-  // would correspond to 10 parameters annotated with @Nullable
-  private static final int MAX_STARTING_STATES = 1_024;
   private static final Set<String> THIS_SUPER = SetUtils.immutableSetOf("this", "super");
 
   // VisibleForTesting
@@ -133,11 +125,22 @@ public class ExplodedGraphWalker {
   private ExplodedGraph explodedGraph;
 
   // VisibleForTesting
-  Deque<ExplodedGraph.Node> workList;
+  WorkList workList;
+  private SymbolicExecutionSettings settings = SymbolicExecutionSettings.DEFAULT;
+  private WorkList.Strategy explorationStrategy = WorkList.Strategy.DFS;
+  private boolean subsumption = false;
+  private boolean loopWidening = false;
+  private boolean partialYields = false;
+  private int stepBudget = SymbolicExecutionSettings.DEFAULT.maxSteps();
+  private Deadline fileDeadline = Deadline.NONE;
+  @Nullable
+  private LoopWidening widening;
   ExplodedGraph.Node node;
   ProgramPoint programPosition;
+  private ProgramPoints programPoints;
   ProgramState programState;
   private SELiveVariables liveVariables;
+  private DeadSymbols deadSymbols;
   // VisibleForTesting
   CheckerDispatcher checkerDispatcher;
   private Block exitBlock;
@@ -174,6 +177,12 @@ public class ExplodedGraphWalker {
   public static class TooManyNestedBooleanStatesException extends RuntimeException {
   }
 
+  public static class TimeBudgetExceededException extends RuntimeException {
+    public TimeBudgetExceededException(String s) {
+      super(s);
+    }
+  }
+
   public static class MaximumStartingStatesException extends RuntimeException {
     public MaximumStartingStatesException(String s) {
       super(s);
@@ -204,6 +213,16 @@ public class ExplodedGraphWalker {
     this.semanticModel = (Sema) context.getSemanticModel();
   }
 
+  private ExplodedGraphWalker(List<SECheck> seChecks, BehaviorCache behaviorCache, JavaFileScannerContext context,
+    SymbolicExecutionSettings settings) {
+    this(seChecks, behaviorCache, context);
+    this.settings = settings;
+    this.explorationStrategy = settings.explorationStrategy();
+    this.subsumption = settings.subsumption();
+    this.loopWidening = settings.loopWidening();
+    this.partialYields = settings.partialYields();
+  }
+
   public MethodBehavior visitMethod(MethodTree tree) {
     return visitMethod(tree, null);
   }
@@ -213,11 +232,27 @@ public class ExplodedGraphWalker {
     this.methodBehavior = methodBehavior;
     BlockTree body = tree.block();
     if (body != null) {
-      execute(tree);
+      Deadline previousDeadline = Deadline.enter(Deadline.after(settings.methodTimeout()).earliest(fileDeadline));
+      SymbolicValue.IdArena previousIdArena = SymbolicValue.IdArena.enter();
+      Integer previousMaxNestedStates = SymbolicValue.BooleanExpressionSymbolicValue.enterMaxNestedStates(settings.maxNestedBooleanStates());
+      try {
+        execute(tree);
+      } finally {
+        SymbolicValue.BooleanExpressionSymbolicValue.restoreMaxNestedStates(previousMaxNestedStates);
+        SymbolicValue.IdArena.restore(previousIdArena);
+        Deadline.restore(previousDeadline);
+      }
     }
     return this.methodBehavior;
   }
 
+  /**
+   * @param fileDeadline deadline shared by all the methods of the file being analyzed
+   */
+  void setFileDeadline(Deadline fileDeadline) {
+    this.fileDeadline = fileDeadline;
+  }
+
   private void execute(MethodTree tree) {
     PerformanceMeasure.Duration cfgDuration = PerformanceMeasure.start("cfg");
     ControlFlowGraph cfg = tree.cfg();
@@ -228,15 +263,19 @@ public class ExplodedGraphWalker {
     }
 
     checkerDispatcher.init(tree, cfg);
+    programPoints = new ProgramPoints(cfg);
 
     PerformanceMeasure.Duration liveVariablesDuration = PerformanceMeasure.start("SELiveVariables.analyze");
     liveVariables = SELiveVariables.analyze(cfg);
+    deadSymbols = new DeadSymbols(cfg, liveVariables);
     liveVariablesDuration.stop();
 
-    explodedGraph = new ExplodedGraph();
+    stepBudget = settings.maxSteps(cfg);
+    explodedGraph = new ExplodedGraph(subsumption, settings.hashConsing());
     methodTree = tree;
     constraintManager = new ConstraintManager();
-    workList = new LinkedList<>();
+    widening = loopWidening ? new LoopWidening(cfg, constraintManager) : null;
+    workList = WorkList.create(explorationStrategy, cfg);
     // Linked hashSet is required to guarantee order of yields to be generated
     endOfExecutionPath = new LinkedHashSet<>();
     programState = ProgramState.EMPTY_STATE;
@@ -245,8 +284,8 @@ public class ExplodedGraphWalker {
     while (!workList.isEmpty()) {
       steps++;
       throwExceptionIfMaxStepsHasBeenReached(tree);
-      // LIFO:
-      setNode(workList.removeFirst());
+      throwExceptionIfDeadlineHasBeenReached(tree);
+      setNode(workList.pop());
       Block block = programPosition.block;
       if (block.successors().isEmpty()) {
         endOfExecutionPath.add(node);
@@ -288,6 +327,7 @@ public class ExplodedGraphWalker {
     endOfExecutionDuration.stop();
     // Cleanup:
     workList = null;
+    widening = null;
     node = null;
     programState = null;
     constraintManager = null;
@@ -299,7 +339,7 @@ public class ExplodedGraphWalker {
 
   private void enqueueStartingStates(MethodTree tree, ControlFlowGraph cfg) {
     for (ProgramState startingState : startingStates(tree, programState)) {
-      enqueue(new ProgramPoint(cfg.entryBlock()), startingState);
+      enqueue(programPoints.entry(cfg.entryBlock()), startingState);
     }
   }
 
@@ -313,12 +353,21 @@ public class ExplodedGraphWalker {
 
   private void throwTooManyBooleanStates(MethodTree tree, TooManyNestedBooleanStatesException e) {
     String message = String.format("reached maximum number of %d branched states for method %s in class %s",
-      MAX_NESTED_BOOLEAN_STATES, tree.simpleName().name(), tree.symbol().owner().name());
+      settings.maxNestedBooleanStates(), tree.simpleName().name(), tree.symbol().owner().name());
     MaximumStepsReachedException cause = new MaximumStepsReachedException(message, e);
     interrupted(cause);
     throw cause;
   }
 
+  private void throwExceptionIfDeadlineHasBeenReached(MethodTree tree) {
+    if (Deadline.current().isExpired()) {
+      TimeBudgetExceededException cause = new TimeBudgetExceededException(String.format("reached time budget for method %s#%d in class %s",
+        tree.simpleName().name(), SELineUtils.startLine(tree.simpleName()), tree.symbol().owner().name()));
+      interrupted(cause);
+      throw cause;
+    }
+  }
+
   private void throwExceptionIfMaxStepsHasBeenReached(MethodTree tree) {
     if (steps > maxSteps()) {
       String message = String.format("reached limit of %d steps for method %s#%d in class %s",
@@ -332,6 +381,14 @@ public class ExplodedGraphWalker {
   private void interrupted(Exception cause) {
     handleEndOfExecutionPath(true);
     checkerDispatcher.interruptedExecution(cause);
+    keepPartialYields();
+  }
+
+  private void keepPartialYields() {
+    if (partialYields && methodBehavior != null) {
+      endOfExecutionPath.forEach(methodBehavior::createYield);
+      methodBehavior.partiallyCompleted();
+    }
   }
 
   private void setNode(ExplodedGraph.Node node) {
@@ -379,7 +436,7 @@ public class ExplodedGraphWalker {
       if (isEqualsMethod || parameterCanBeNull(variableSymbol)) {
         // each nullable parameter generate 2 starting states, combined with all the others
         numberStartingStates *= 2;
-        if (numberStartingStates > MAX_STARTING_STATES) {
+        if (numberStartingStates > settings.maxStartingStates()) {
           throwMaximumStartingStates(methodTree);
         }
         stateStream = stateStream.flatMap((ProgramState ps) ->
@@ -402,9 +459,9 @@ public class ExplodedGraphWalker {
     return methodTree.parameters();
   }
 
-  private static void throwMaximumStartingStates(MethodTree tree) {
+  private void throwMaximumStartingStates(MethodTree tree) {
     String message = String.format("reached maximum number of %d starting states for method %s in class %s",
-      MAX_STARTING_STATES, tree.simpleName().name(), tree.symbol().owner().name());
+      settings.maxStartingStates(), tree.simpleName().name(), tree.symbol().owner().name());
     throw new MaximumStartingStatesException(message);
   }
 
@@ -418,7 +475,12 @@ public class ExplodedGraphWalker {
   private void cleanUpProgramState(Block block) {
     if (cleanup) {
       Collection<SymbolicValue> protectedSVs = methodBehavior == null ? Collections.emptyList() : methodBehavior.parameters();
-      programState = programState.cleanupDeadSymbols(liveVariables.getOut(block), protectedSVs);
+      Set<Symbol> deadAtExit = deadSymbols.atExit(block);
+      if (deadAtExit != null) {
+        programState = programState.removeDeadSymbols(deadAtExit, protectedSVs);
+      } else {
+        programState = programState.cleanupDeadSymbols(liveVariables.getOut(block), protectedSVs);
+      }
       programState = programState.cleanupConstraints(protectedSVs);
     }
   }
@@ -468,7 +530,7 @@ public class ExplodedGraphWalker {
         case RETURN_STATEMENT:
           ExpressionTree returnExpression = ((ReturnStatementTree) terminator).expression();
           if (returnExpression != null) {
-            programState.storeExitValue();
+            programState = programState.storeExitValue();
           }
           break;
         case THROW_STATEMENT:
@@ -481,8 +543,7 @@ public class ExplodedGraphWalker {
           } else {
             exceptionalSV = constraintManager.createExceptionalSymbolicValue(((ThrowStatementTree) terminator).expression().symbolType());
           }
-          programState = unstack.state.stackValue(exceptionalSV);
-          programState.storeExitValue();
+          programState = unstack.state.stackValue(exceptionalSV).storeExitValue();
           break;
         default:
           // do nothing by default.
@@ -491,17 +552,17 @@ public class ExplodedGraphWalker {
     // unconditional jumps, for-statement, synchronized:
     if (exitPath) {
       if (block.exitBlock() != null) {
-        enqueue(new ProgramPoint(block.exitBlock()), programState, true);
+        enqueue(programPoints.entry(block.exitBlock()), programState, true);
       } else {
         for (Block successor : block.successors()) {
-          enqueue(new ProgramPoint(successor), programState, true);
+          enqueue(programPoints.entry(successor), programState, true);
         }
       }
 
     } else {
       for (Block successor : block.successors()) {
         if (!block.isFinallyBlock() || isDirectFlowSuccessorOf(successor, block)) {
-          enqueue(new ProgramPoint(successor), programState, successor == block.exitBlock());
+          enqueue(programPoints.entry(successor), programState, successor == block.exitBlock());
         }
       }
     }
@@ -570,7 +631,7 @@ public class ExplodedGraphWalker {
       for (ProgramState.SymbolicValueSymbol caseValue : caseValues.get(caseGroup)) {
         SymbolicValue equality = constraintManager.createEquality(switchValue, caseValue);
         ProgramState ps = setConstraint(state, equality, BooleanConstraint.TRUE);
-        enqueue(new ProgramPoint(successor), ps, node.exitPath);
+        enqueue(programPoints.entry(successor), ps, node.exitPath);
         elseState = setConstraint(elseState, equality, BooleanConstraint.FALSE);
       }
       if (successor.isDefaultBlock()) {
@@ -580,7 +641,7 @@ public class ExplodedGraphWalker {
     }
     if (elseBlock != null) {
       // for a switch covering all items from an enum, there will be no elseState
-      enqueue(new ProgramPoint(elseBlock), elseState, node.exitPath);
+      enqueue(programPoints.entry(elseBlock), elseState, node.exitPath);
     }
   }
 
@@ -599,7 +660,7 @@ public class ExplodedGraphWalker {
 
   private void handleBranch(Block programPosition, Tree condition, boolean checkPath) {
     Pair<List<ProgramState>, List<ProgramState>> pair = constraintManager.assumeDual(programState);
-    ProgramPoint falseBlockProgramPoint = new ProgramPoint(programPosition.falseBlock());
+    ProgramPoint falseBlockProgramPoint = programPoints.entry(programPosition.falseBlock());
     for (ProgramState state : pair.a) {
       ProgramState ps = state;
       if (condition.parent().is(Tree.Kind.CONDITIONAL_AND) && !isConditionBranchingExpressionOrStatement(condition)) {
@@ -613,7 +674,7 @@ public class ExplodedGraphWalker {
         alwaysTrueOrFalseExpressionCollector.evaluatedToFalse(cleanupCondition((ExpressionTree) condition), node);
       }
     }
-    ProgramPoint trueBlockProgramPoint = new ProgramPoint(programPosition.trueBlock());
+    ProgramPoint trueBlockProgramPoint = programPoints.entry(programPosition.trueBlock());
     for (ProgramState state : pair.b) {
       ProgramState ps = state;
       if (condition.parent().is(Tree.Kind.CONDITIONAL_OR) && !isConditionBranchingExpressionOrStatement(condition)) {
@@ -815,9 +876,10 @@ public class ExplodedGraphWalker {
     enqueueUncheckedExceptionalPaths(methodSymbol);
 
     final SymbolicValue resultValue = constraintManager.createMethodSymbolicValue(mit, unstack.valuesAndSymbols);
-    if (methodInvokedBehavior != null
-      && methodInvokedBehavior.isComplete()
-      && !EQUALS_METHODS.matches(mit)) {
+    boolean useYields = methodInvokedBehavior != null
+      && (methodInvokedBehavior.isComplete() || methodInvokedBehavior.isPartial())
+      && !EQUALS_METHODS.matches(mit);
+    if (useYields) {
       List<SymbolicValue> invocationArguments = invocationArguments(unstack.values);
       List<Type> invocationTypes = mit.arguments().stream().map(ExpressionTree::symbolType).toList();
 
@@ -838,8 +900,9 @@ public class ExplodedGraphWalker {
           methodYield.statesAfterInvocation(invocationArguments, invocationTypes, programState, () -> resultValue)
             .map(psYield -> handleSpecialMethods(psYield, mit))
             .forEach(psYield -> enqueueHappyPath(psYield, mit,  methodYield)));
-    } else {
-      // Enqueue exceptional paths from thrown exceptions
+    }
+    if (!useYields || methodInvokedBehavior.isPartial()) {
+      // Unknown method, or paths not covered by a partial behavior: enqueue exceptional paths from thrown exceptions
       enqueueThrownExceptionalPaths(methodSymbol);
 
       // Enqueue happy paths
@@ -898,17 +961,17 @@ public class ExplodedGraphWalker {
       .sorted((b1, b2) -> Integer.compare(b2.id(), b1.id()))
       .toList();
     if (!caughtBlocks.isEmpty()) {
-      caughtBlocks.forEach(b -> enqueue(new ProgramPoint(b), ps, methodYield));
+      caughtBlocks.forEach(b -> enqueue(programPoints.entry(b), ps, methodYield));
       return;
     }
 
     // branch to any unchecked exception catch
     catchBlocks.stream()
       .filter(ExplodedGraphWalker::isCatchingUncheckedException)
-      .forEach(b -> enqueue(new ProgramPoint(b), ps, methodYield));
+      .forEach(b -> enqueue(programPoints.entry(b), ps, methodYield));
 
     // store the exception as exit value in case of method exit in next block
-    ps.storeExitValue();
+    ProgramState exitState = ps.storeExitValue();
 
     // use other exceptional blocks, i.e. finally block and exit blocks
     List<Block> otherBlocks = exceptionBlocks.stream()
@@ -922,10 +985,10 @@ public class ExplodedGraphWalker {
         .filter(CFGUtils::isMethodExitBlock)
         .findFirst()
         .orElse(exitBlock);
-      enqueue(new ProgramPoint(methodExit), ps, true, methodYield);
+      enqueue(programPoints.entry(methodExit), exitState, true, methodYield);
     } else {
-      var stateWithoutException = ps.unstackValue(1).state.withEntryException(exceptionSV);
-      otherBlocks.forEach(b -> enqueue(new ProgramPoint(b), stateWithoutException, true, methodYield));
+      var stateWithoutException = exitState.unstackValue(1).state.withEntryException(exceptionSV);
+      otherBlocks.forEach(b -> enqueue(programPoints.entry(b), stateWithoutException, true, methodYield));
     }
   }
 
@@ -1255,19 +1318,29 @@ public class ExplodedGraphWalker {
   }
 
   public void enqueue(ProgramPoint newProgramPoint, ProgramState programState, boolean exitPath, @Nullable MethodYield methodYield) {
-    ProgramPoint programPoint = newProgramPoint;
+    // program points built by checks are replaced by the ones of the CFG
+    ProgramPoint programPoint = programPoints == null ? newProgramPoint : programPoints.canonical(newProgramPoint);
+    ProgramState state = programState;
 
-    int nbOfExecution = programState.numberOfTimeVisited(programPoint);
+    int nbOfExecution = state.numberOfTimeVisited(programPoint);
+    if (widening != null && nbOfExecution > 0) {
+      // path is looping: generalize the state, which then meets the states of the previous iterations in the exploded graph
+      state = widening.widen(programPoint, state);
+    }
     if (nbOfExecution > MAX_EXEC_PROGRAM_POINT) {
       if (isRestartingForEachLoop(programPoint)) {
         // reached the max number of visit by program point, so take the false branch with current program state
-        programPoint = new ProgramPoint(programPoint.block.falseBlock());
+        programPoint = programPoints.entry(programPoint.block.falseBlock());
       } else {
         return;
       }
     }
-    checkExplodedGraphTooBig(programState);
-    ProgramState ps = programState.visitedPoint(programPoint, nbOfExecution + 1);
+    checkExplodedGraphTooBig(state);
+    ProgramState ps = state.visitedPoint(programPoint, nbOfExecution + 1);
+    if (subsumption && !programPoint.block.successors().isEmpty() && explodedGraph.isSubsumed(programPoint, ps, exitPath)) {
+      // a more general state has already been enqueued at this program point (not applied at the end of the method, to keep precise yields)
+      return;
+    }
     ExplodedGraph.Node cachedNode = explodedGraph.node(programPoint, ps);
     if (!cachedNode.isNew() && exitPath == cachedNode.exitPath) {
       // has been enqueued earlier
@@ -1276,7 +1349,7 @@ public class ExplodedGraphWalker {
     }
     cachedNode.exitPath = exitPath;
     cachedNode.addParent(node, methodYield);
-    workList.addFirst(cachedNode);
+    workList.push(cachedNode);
   }
 
   private static boolean isRestartingForEachLoop(ProgramPoint programPoint) {
@@ -1286,7 +1359,7 @@ public class ExplodedGraphWalker {
 
   private void checkExplodedGraphTooBig(ProgramState programState) {
     // Arbitrary formula to avoid out of memory errors
-    if (steps + workList.size() > maxSteps() / 2 && programState.constraintsSize() > 75) {
+    if (steps + workList.size() > maxSteps() / 2 && programState.constraintsSize() > settings.maxStateConstraints()) {
       throw new ExplodedGraphTooBigException("Program state constraints are too big : stopping Symbolic Execution for method "
         + methodTree.simpleName().name() + " in class " + methodTree.symbol().owner().name());
     }
@@ -1294,7 +1367,7 @@ public class ExplodedGraphWalker {
 
   // VisibleForTesting
   protected int maxSteps() {
-    return MAX_STEPS;
+    return stepBudget;
   }
 
   AlwaysTrueOrFalseExpressionCollector alwaysTrueOrFalseExpressionCollector() {
@@ -1310,8 +1383,14 @@ public class ExplodedGraphWalker {
 
     // VisibleForTesting
     final List<SECheck> seChecks = new ArrayList<>();
+    private final SymbolicExecutionSettings settings;
 
     public ExplodedGraphWalkerFactory(List<SECheck> activeSEChecks) {
+      this(activeSEChecks, SymbolicExecutionSettings.DEFAULT);
+    }
+
+    public ExplodedGraphWalkerFactory(List<SECheck> activeSEChecks, SymbolicExecutionSettings settings) {
+      this.settings = settings;
       List<SECheck> checks = new ArrayList<>(activeSEChecks);
 
       // This order of the mandatory SE checks is required by the ExplodedGraphWalker
@@ -1329,7 +1408,7 @@ public class ExplodedGraphWalker {
     }
 
     public ExplodedGraphWalker createWalker(BehaviorCache behaviorCache, JavaFileScannerContext context) {
-      return new ExplodedGraphWalker(seChecks, behaviorCache, context);
+      return new ExplodedGraphWalker(seChecks, behaviorCache, context, settings);
     }
 
     @SuppressWarnings("unchecked")
@@ -84,6 +84,7 @@ public class FlowComputation {
     Tree.Kind.REMAINDER_ASSIGNMENT);
 
   private static final int MAX_FLOW_STEPS = 3_000_000;
+  private static final int DEADLINE_CHECK_INTERVAL = 1_000;
   public static final int FIRST_FLOW = 1;
   public static final int MAX_REPORTED_FLOWS = 20;
   public static final int MAX_LOOKUP_FLOWS = 500_000;
@@ -195,6 +196,11 @@ public class FlowComputation {
           });
       }
       flowSteps++;
+      if (flowSteps % DEADLINE_CHECK_INTERVAL == 0 && Deadline.current().isExpired()) {
+        // issues are still reported once the time budget is exceeded, only with the flows computed so far
+        LOG.debug("Flow computation reached the time budget");
+        break;
+      }
       if(flowSteps == MAX_FLOW_STEPS) {
         LOG.debug("Flow was not able to complete");
         break;
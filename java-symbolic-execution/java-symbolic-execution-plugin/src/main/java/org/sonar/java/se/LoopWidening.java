@@ -0,0 +1,138 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.sonar.java.cfg.CFGLoop;
+import org.sonar.java.model.SEExpressionUtils;
+import org.sonar.java.se.constraint.Constraint;
+import org.sonar.java.se.constraint.ConstraintManager;
+import org.sonar.java.se.constraint.ConstraintsByDomain;
+import org.sonar.java.se.symbolicvalues.SymbolicValue;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph.Block;
+import org.sonar.plugins.java.api.semantic.Symbol;
+import org.sonar.plugins.java.api.tree.AssignmentExpressionTree;
+import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.java.api.tree.ExpressionTree;
+import org.sonar.plugins.java.api.tree.IdentifierTree;
+import org.sonar.plugins.java.api.tree.Tree;
+import org.sonar.plugins.java.api.tree.UnaryExpressionTree;
+
+/**
+ * Widening of program states at loop heads: when a path comes back to the head of a loop, the local variables modified by
+ * the loop are bound to a value specific to this loop, which only keeps the constraints observed at the previous widening
+ * of the same path. States reaching the loop head again are then the same as the previous ones, and the loop converges
+ * without unrolling every iteration.
+ */
+class LoopWidening {
+
+  private final ConstraintManager constraintManager;
+  private final Map<Integer, Set<Symbol>> modifiedSymbolsByLoopHead = new HashMap<>();
+  private final Map<Integer, Map<Symbol, SymbolicValue>> widenedValuesByLoopHead = new HashMap<>();
+
+  LoopWidening(ControlFlowGraph cfg, ConstraintManager constraintManager) {
+    this.constraintManager = constraintManager;
+    Set<Tree> loops = CFGLoop.getCFGLoops(cfg).keySet();
+    for (Block block : cfg.blocks()) {
+      Tree terminator = block.terminator();
+      if (terminator != null && loops.contains(terminator)) {
+        ModifiedSymbolsCollector collector = new ModifiedSymbolsCollector();
+        terminator.accept(collector);
+        modifiedSymbolsByLoopHead.put(block.id(), collector.symbols);
+      }
+    }
+  }
+
+  /**
+   * @param programPoint program point reached again by the path leading to the given state
+   */
+  ProgramState widen(ProgramPoint programPoint, ProgramState programState) {
+    Set<Symbol> modifiedSymbols = modifiedSymbolsByLoopHead.get(programPoint.block.id());
+    if (programPoint.i != 0 || modifiedSymbols == null) {
+      return programState;
+    }
+    Map<Symbol, SymbolicValue> widenedValues = widenedValuesByLoopHead.computeIfAbsent(programPoint.block.id(), k -> new HashMap<>());
+    ProgramState ps = programState;
+    for (Symbol symbol : modifiedSymbols) {
+      SymbolicValue value = ps.getValue(symbol);
+      SymbolicValue widenedValue = widenedValues.computeIfAbsent(symbol, s -> constraintManager.createDefaultSymbolicValue());
+      if (value == null || value == widenedValue || ps.canReach(widenedValue)) {
+        // nothing to widen, or the widened value still stands for a previous iteration in another variable
+        continue;
+      }
+      // constraints left on the widened value are the ones of the previous widening of this path
+      ConstraintsByDomain stableConstraints = stableConstraints(ps.getConstraints(widenedValue), ps.getConstraints(value));
+      // what was learned about the widened value, including its relations, was about the previous iteration
+      ps = ps.forget(widenedValue)
+        .put(symbol, widenedValue)
+        .replaceConstraints(widenedValue, stableConstraints);
+    }
+    return ps;
+  }
+
+  /**
+   * Constraints which differ from one iteration to the other are dropped.
+   */
+  private static ConstraintsByDomain stableConstraints(@Nullable ConstraintsByDomain previousConstraints, @Nullable ConstraintsByDomain constraints) {
+    if (constraints == null) {
+      return ConstraintsByDomain.empty();
+    }
+    if (previousConstraints == null) {
+      return constraints;
+    }
+    ConstraintsByDomain result = previousConstraints;
+    for (Class<? extends Constraint> domain : previousConstraints.domains().toList()) {
+      if (!previousConstraints.get(domain).equals(constraints.get(domain))) {
+        result = result.remove(domain);
+      }
+    }
+    return result;
+  }
+
+  private static class ModifiedSymbolsCollector extends BaseTreeVisitor {
+    private final Set<Symbol> symbols = new LinkedHashSet<>();
+
+    @Override
+    public void visitAssignmentExpression(AssignmentExpressionTree tree) {
+      addLocalVariable(tree.variable());
+      super.visitAssignmentExpression(tree);
+    }
+
+    @Override
+    public void visitUnaryExpression(UnaryExpressionTree tree) {
+      if (tree.is(Tree.Kind.PREFIX_INCREMENT, Tree.Kind.PREFIX_DECREMENT, Tree.Kind.POSTFIX_INCREMENT, Tree.Kind.POSTFIX_DECREMENT)) {
+        addLocalVariable(tree.expression());
+      }
+      super.visitUnaryExpression(tree);
+    }
+
+    private void addLocalVariable(ExpressionTree expression) {
+      ExpressionTree target = SEExpressionUtils.skipParentheses(expression);
+      if (target.is(Tree.Kind.IDENTIFIER)) {
+        Symbol symbol = ((IdentifierTree) target).symbol();
+        if (symbol.isLocalVariable()) {
+          symbols.add(symbol);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import javax.annotation.Nullable;
+import org.sonar.java.se.ProgramState.SymbolicValueSymbol;
+import org.sonar.java.se.symbolicvalues.SymbolicValue;
+import org.sonarsource.analyzer.commons.collections.PCollections;
+import org.sonarsource.analyzer.commons.collections.PSet;
+
+/**
+ * Persistent stack of the values of the expressions being evaluated, as a list of nodes shared between the stacks they belong to.
+ * Each node caches the size and the hash of the stack it is the top of, and, once asked for, the set of the symbolic values of
+ * the stack with the values they reference: membership tests do not go through the stack and the operands of its values.
+ */
+final class OperandStack implements Iterable<SymbolicValueSymbol> {
+
+  static final OperandStack EMPTY = new OperandStack(null, null);
+
+  @Nullable
+  private final SymbolicValueSymbol top;
+  @Nullable
+  private final OperandStack below;
+  private final int size;
+  private final int hash;
+  @Nullable
+  private PSet<SymbolicValue> values;
+
+  private OperandStack(@Nullable SymbolicValueSymbol top, @Nullable OperandStack below) {
+    this.top = top;
+    this.below = below;
+    if (top == null || below == null) {
+      size = 0;
+      hash = 0;
+      values = PCollections.emptySet();
+    } else {
+      size = below.size + 1;
+      hash = 31 * below.hash + top.hashCode();
+    }
+  }
+
+  OperandStack push(SymbolicValueSymbol valueSymbol) {
+    return new OperandStack(valueSymbol, this);
+  }
+
+  OperandStack pop() {
+    if (below == null) {
+      throw new IllegalStateException("Cannot pop an empty stack");
+    }
+    return below;
+  }
+
+  SymbolicValueSymbol peek() {
+    if (top == null) {
+      throw new IllegalStateException("Cannot peek an empty stack");
+    }
+    return top;
+  }
+
+  SymbolicValueSymbol peek(int i) {
+    OperandStack stack = this;
+    for (int j = 0; j < i; j++) {
+      stack = stack.pop();
+    }
+    return stack.peek();
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * @return true if the given symbolic value is on the stack, or is an operand of a symbolic value on the stack
+   */
+  boolean contains(SymbolicValue symbolicValue) {
+    return !isEmpty() && values().contains(symbolicValue);
+  }
+
+  private PSet<SymbolicValue> values() {
+    PSet<SymbolicValue> result = values;
+    if (result == null) {
+      // not empty: only the empty stack is created with its values
+      result = below.values();
+      Deque<SymbolicValue> workList = new ArrayDeque<>();
+      workList.push(top.symbolicValue());
+      while (!workList.isEmpty()) {
+        SymbolicValue sv = workList.pop();
+        if (!result.contains(sv)) {
+          result = result.add(sv);
+          for (SymbolicValue referencedValue : sv.referencedValues()) {
+            // operands of a binary value are not set until it is computed
+            if (referencedValue != null) {
+              workList.push(referencedValue);
+            }
+          }
+        }
+      }
+      values = result;
+    }
+    return result;
+  }
+
+  @Override
+  public Iterator<SymbolicValueSymbol> iterator() {
+    return new Iterator<>() {
+      private OperandStack current = OperandStack.this;
+
+      @Override
+      public boolean hasNext() {
+        return !current.isEmpty();
+      }
+
+      @Override
+      public SymbolicValueSymbol next() {
+        if (current.isEmpty()) {
+          throw new NoSuchElementException();
+        }
+        SymbolicValueSymbol next = current.peek();
+        current = current.pop();
+        return next;
+      }
+    };
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof OperandStack other) || size != other.size || hash != other.hash) {
+      return false;
+    }
+    OperandStack stack = this;
+    // both stacks have the same size: they reach the empty stack together, or a common part before
+    while (stack != other) {
+      if (!stack.peek().equals(other.peek())) {
+        return false;
+      }
+      stack = stack.pop();
+      other = other.pop();
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("[");
+    for (SymbolicValueSymbol valueSymbol : this) {
+      if (sb.length() > 1) {
+        sb.append(", ");
+      }
+      sb.append(valueSymbol);
+    }
+    return sb.append(']').toString();
+  }
+}
@@ -0,0 +1,252 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+import java.util.Arrays;
+import javax.annotation.CheckForNull;
+
+/**
+ * Persistent map with int keys, used for the internals of {@link ProgramState} which are keyed by an id.
+ * It is a hash array mapped trie indexed directly by the bits of the key, five bits per level: keys are not boxed, there are no
+ * collisions to handle, and an update only copies the nodes on the path to the key, entries being stored inline in the nodes
+ * rather than in a node of their own.
+ */
+final class PIntMap<V> {
+
+  private static final int BITS_PER_LEVEL = 5;
+  private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private static final PIntMap EMPTY = new PIntMap<>(Node.EMPTY, 0);
+
+  private final Node<V> root;
+  private final int size;
+
+  private PIntMap(Node<V> root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  @SuppressWarnings("unchecked")
+  static <V> PIntMap<V> empty() {
+    return EMPTY;
+  }
+
+  @CheckForNull
+  V get(int key) {
+    Node<V> node = root;
+    int shift = 0;
+    while (true) {
+      int bit = bit(key, shift);
+      if ((node.dataMap & bit) != 0) {
+        int index = node.dataIndex(bit);
+        return node.keys[index] == key ? node.value(index) : null;
+      }
+      if ((node.nodeMap & bit) == 0) {
+        return null;
+      }
+      node = node.nodes[node.nodeIndex(bit)];
+      shift += BITS_PER_LEVEL;
+    }
+  }
+
+  PIntMap<V> put(int key, V value) {
+    Node<V> newRoot = root.put(key, value, 0);
+    if (newRoot == root) {
+      return this;
+    }
+    return new PIntMap<>(newRoot, get(key) == null ? (size + 1) : size);
+  }
+
+  PIntMap<V> remove(int key) {
+    Node<V> newRoot = root.remove(key, 0);
+    if (newRoot == root) {
+      return this;
+    }
+    return new PIntMap<>(newRoot, size - 1);
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("{");
+    root.appendTo(sb);
+    if (sb.length() > 1) {
+      sb.setLength(sb.length() - 1);
+    }
+    return sb.append('}').toString();
+  }
+
+  private static int bit(int key, int shift) {
+    return 1 << ((key >>> shift) & LEVEL_MASK);
+  }
+
+  private static final class Node<V> {
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final Node EMPTY = new Node<>(0, 0, new int[0], new Object[0], new Node[0]);
+
+    /**
+     * Positions, among the 32 of the level, of the entries stored in this node
+     */
+    private final int dataMap;
+    /**
+     * Positions, among the 32 of the level, of the entries stored in child nodes
+     */
+    private final int nodeMap;
+    private final int[] keys;
+    private final Object[] values;
+    private final Node<V>[] nodes;
+
+    private Node(int dataMap, int nodeMap, int[] keys, Object[] values, Node<V>[] nodes) {
+      this.dataMap = dataMap;
+      this.nodeMap = nodeMap;
+      this.keys = keys;
+      this.values = values;
+      this.nodes = nodes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(int index) {
+      return (V) values[index];
+    }
+
+    private int dataIndex(int bit) {
+      return Integer.bitCount(dataMap & (bit - 1));
+    }
+
+    private int nodeIndex(int bit) {
+      return Integer.bitCount(nodeMap & (bit - 1));
+    }
+
+    private Node<V> put(int key, V value, int shift) {
+      int bit = bit(key, shift);
+      if ((dataMap & bit) != 0) {
+        int index = dataIndex(bit);
+        if (keys[index] == key) {
+          if (values[index] == value) {
+            return this;
+          }
+          Object[] newValues = values.clone();
+          newValues[index] = value;
+          return new Node<>(dataMap, nodeMap, keys, newValues, nodes);
+        }
+        // both entries are moved to a new child node
+        Node<V> child = merge(keys[index], value(index), key, value, shift + BITS_PER_LEVEL);
+        return new Node<>(dataMap ^ bit, nodeMap | bit, removeAt(keys, index), removeAt(values, index), insertAt(nodes, nodeIndex(bit), child));
+      }
+      if ((nodeMap & bit) != 0) {
+        int index = nodeIndex(bit);
+        Node<V> child = nodes[index];
+        Node<V> newChild = child.put(key, value, shift + BITS_PER_LEVEL);
+        if (newChild == child) {
+          return this;
+        }
+        Node<V>[] newNodes = nodes.clone();
+        newNodes[index] = newChild;
+        return new Node<>(dataMap, nodeMap, keys, values, newNodes);
+      }
+      int index = dataIndex(bit);
+      return new Node<>(dataMap | bit, nodeMap, insertAt(keys, index, key), insertAt(values, index, value), nodes);
+    }
+
+    private Node<V> remove(int key, int shift) {
+      int bit = bit(key, shift);
+      if ((dataMap & bit) != 0) {
+        int index = dataIndex(bit);
+        if (keys[index] != key) {
+          return this;
+        }
+        return new Node<>(dataMap ^ bit, nodeMap, removeAt(keys, index), removeAt(values, index), nodes);
+      }
+      if ((nodeMap & bit) != 0) {
+        int index = nodeIndex(bit);
+        Node<V> child = nodes[index];
+        Node<V> newChild = child.remove(key, shift + BITS_PER_LEVEL);
+        if (newChild == child) {
+          return this;
+        }
+        if (newChild.nodeMap == 0 && newChild.keys.length == 1) {
+          // a child node always holds at least two entries: the remaining one is moved back to this node
+          int dataIndex = dataIndex(bit);
+          return new Node<>(dataMap | bit, nodeMap ^ bit, insertAt(keys, dataIndex, newChild.keys[0]), insertAt(values, dataIndex, newChild.values[0]),
+            removeAt(nodes, index));
+        }
+        Node<V>[] newNodes = nodes.clone();
+        newNodes[index] = newChild;
+        return new Node<>(dataMap, nodeMap, keys, values, newNodes);
+      }
+      return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Node<V> merge(int key1, V value1, int key2, V value2, int shift) {
+      int bit1 = bit(key1, shift);
+      int bit2 = bit(key2, shift);
+      if (bit1 == bit2) {
+        return new Node<>(0, bit1, new int[0], new Object[0], new Node[] {merge(key1, value1, key2, value2, shift + BITS_PER_LEVEL)});
+      }
+      if (Integer.compareUnsigned(bit1, bit2) < 0) {
+        return new Node<>(bit1 | bit2, 0, new int[] {key1, key2}, new Object[] {value1, value2}, new Node[0]);
+      }
+      return new Node<>(bit1 | bit2, 0, new int[] {key2, key1}, new Object[] {value2, value1}, new Node[0]);
+    }
+
+    private void appendTo(StringBuilder sb) {
+      for (int i = 0; i < keys.length; i++) {
+        sb.append(keys[i]).append('=').append(values[i]).append(',');
+      }
+      for (Node<V> node : nodes) {
+        node.appendTo(sb);
+      }
+    }
+
+    private static int[] insertAt(int[] array, int index, int element) {
+      int[] result = new int[array.length + 1];
+      System.arraycopy(array, 0, result, 0, index);
+      result[index] = element;
+      System.arraycopy(array, index, result, index + 1, array.length - index);
+      return result;
+    }
+
+    private static <T> T[] insertAt(T[] array, int index, T element) {
+      T[] result = Arrays.copyOf(array, array.length + 1);
+      System.arraycopy(array, index, result, index + 1, array.length - index);
+      result[index] = element;
+      return result;
+    }
+
+    private static int[] removeAt(int[] array, int index) {
+      int[] result = new int[array.length - 1];
+      System.arraycopy(array, 0, result, 0, index);
+      System.arraycopy(array, index + 1, result, index, array.length - index - 1);
+      return result;
+    }
+
+    private static <T> T[] removeAt(T[] array, int index) {
+      T[] result = Arrays.copyOf(array, array.length - 1);
+      System.arraycopy(array, index + 1, result, index, array.length - index - 1);
+      return result;
+    }
+  }
+}
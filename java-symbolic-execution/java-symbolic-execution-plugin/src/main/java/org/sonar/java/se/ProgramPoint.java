@@ -17,6 +17,7 @@
 package org.sonar.java.se;
 
 import java.util.List;
+import javax.annotation.Nullable;
 import org.sonar.java.Preconditions;
 import org.sonar.java.model.SELineUtils;
 import org.sonar.plugins.java.api.cfg.ControlFlowGraph.Block;
@@ -26,26 +27,46 @@ public class ProgramPoint {
   private final int hashcode;
   public final Block block;
   public final int i;
+  /**
+   * Index of this program point among the program points of its CFG, which are numbered densely from 0.
+   * {@code -1} when it has not been taken from the {@link ProgramPoints} of the CFG.
+   */
+  public final int id;
+  @Nullable
+  private final ProgramPoints programPoints;
 
-  public ProgramPoint(Block block) {
-    this(block, 0);
+  /**
+   * Program point which is not part of the {@link ProgramPoints} of a CFG: visits of such a point cannot be counted.
+   */
+  // VisibleForTesting
+  ProgramPoint(Block block) {
+    this(block, 0, -1, null);
   }
 
   /**
    * {@code i == blockSize} means we are pointing to terminator block, {@code i == blockSize + 1} is valid if terminator block is branching
    * @see ExplodedGraphWalker#execute
    */
-  private ProgramPoint(Block block, int i) {
+  ProgramPoint(Block block, int i, int id, @Nullable ProgramPoints programPoints) {
     int blockSize = block.elements().size();
     Preconditions.checkState(i < blockSize + 2, "CFG Block has %s elements but PP at %s was requested", blockSize, i);
     this.block = block;
     this.i = i;
+    this.id = id;
+    this.programPoints = programPoints;
     this.hashcode = block.id() * 31 + i;
   }
 
+  static int pointsInBlock(Block block) {
+    return block.elements().size() + 2;
+  }
+
   public ProgramPoint next() {
     int nextPP = this.i + 1;
-    return new ProgramPoint(block, nextPP);
+    if (programPoints != null) {
+      return programPoints.get(block, nextPP);
+    }
+    return new ProgramPoint(block, nextPP, -1, null);
   }
 
   @Override
@@ -55,6 +76,9 @@ public class ProgramPoint {
 
   @Override
   public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
     if (obj instanceof ProgramPoint other) {
       return this.block.id() == other.block.id()
         && this.i == other.i;
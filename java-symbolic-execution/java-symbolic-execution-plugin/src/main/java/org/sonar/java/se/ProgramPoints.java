@@ -0,0 +1,84 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+import java.util.Arrays;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph.Block;
+
+/**
+ * All the program points of a CFG, built once before its exploration: moving from a program point to the next one, or to the
+ * entry of another block, does not build a new program point. Program points are numbered densely, see {@link ProgramPoint#id}.
+ */
+final class ProgramPoints {
+
+  private final ProgramPoint[] points;
+  /**
+   * Id of the first program point of each block, indexed by block id. {@code -1} for ids not matching a block of the CFG.
+   */
+  private final int[] firstIdByBlockId;
+
+  ProgramPoints(ControlFlowGraph cfg) {
+    int maxBlockId = -1;
+    int size = 0;
+    for (Block block : cfg.blocks()) {
+      maxBlockId = Math.max(maxBlockId, block.id());
+      size += ProgramPoint.pointsInBlock(block);
+    }
+    points = new ProgramPoint[size];
+    firstIdByBlockId = new int[maxBlockId + 1];
+    Arrays.fill(firstIdByBlockId, -1);
+    int id = 0;
+    for (Block block : cfg.blocks()) {
+      firstIdByBlockId[block.id()] = id;
+      for (int i = 0; i < ProgramPoint.pointsInBlock(block); i++) {
+        points[id] = new ProgramPoint(block, i, id, this);
+        id++;
+      }
+    }
+  }
+
+  /**
+   * @return the program point at the start of the given block
+   */
+  ProgramPoint entry(Block block) {
+    return get(block, 0);
+  }
+
+  /**
+   * @return the program point of the table equal to the given one, or the given one when the table has none
+   */
+  ProgramPoint canonical(ProgramPoint programPoint) {
+    return programPoint.id >= 0 ? programPoint : get(programPoint.block, programPoint.i);
+  }
+
+  ProgramPoint get(Block block, int i) {
+    int blockId = block.id();
+    if (blockId >= 0 && blockId < firstIdByBlockId.length && firstIdByBlockId[blockId] >= 0 && i < ProgramPoint.pointsInBlock(block)) {
+      ProgramPoint programPoint = points[firstIdByBlockId[blockId] + i];
+      if (programPoint.block == block) {
+        return programPoint;
+      }
+    }
+    // block is not part of the CFG, or the index is out of its bounds, which is reported by the constructor
+    return new ProgramPoint(block, i, -1, null);
+  }
+
+  int size() {
+    return points.length;
+  }
+}
@@ -16,15 +16,18 @@
  */
 package org.sonar.java.se;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.BiConsumer;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.java.Preconditions;
@@ -44,14 +47,13 @@ import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.semantic.Type;
 import org.sonarsource.analyzer.commons.collections.PCollections;
 import org.sonarsource.analyzer.commons.collections.PMap;
-import org.sonarsource.analyzer.commons.collections.PStack;
+import org.sonarsource.analyzer.commons.collections.PSet;
 import org.sonarsource.analyzer.commons.collections.SetUtils;
 
 public class ProgramState {
 
   private static final Set<Class<? extends Constraint>> NON_DISPOSABLE_CONSTRAINTS = SetUtils.immutableSetOf(UnclosedResourcesCheck.ResourceConstraint.class,
     CustomUnclosedResourcesCheck.CustomResourceConstraint.class, LocksNotUnlockedCheck.LockConstraint.class, StreamConsumedCheck.StreamPipelineConstraint.class);
-  private Set<RelationalSymbolicValue> knownRelations;
 
   public static class Pop {
 
@@ -65,6 +67,62 @@ public class ProgramState {
       valuesAndSymbols = result;
     }
 
+    private Pop(ProgramState programState, OperandStack popped, int size) {
+      state = programState;
+      values = new StackSegment<>(popped, size, SymbolicValueSymbol::symbolicValue);
+      valuesAndSymbols = new StackSegment<>(popped, size, Function.identity());
+    }
+
+  }
+
+  /**
+   * View of the top elements of a stack, read from the stack when accessed rather than copied.
+   */
+  private static final class StackSegment<T> extends AbstractList<T> {
+    private final OperandStack top;
+    private final int size;
+    private final Function<SymbolicValueSymbol, T> element;
+
+    private StackSegment(OperandStack top, int size, Function<SymbolicValueSymbol, T> element) {
+      this.top = top;
+      this.size = size;
+      this.element = element;
+    }
+
+    @Override
+    public T get(int index) {
+      Objects.checkIndex(index, size);
+      return element.apply(top.peek(index));
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+      return new Iterator<>() {
+        private OperandStack current = top;
+        private int remaining = size;
+
+        @Override
+        public boolean hasNext() {
+          return remaining > 0;
+        }
+
+        @Override
+        public T next() {
+          if (remaining == 0) {
+            throw new NoSuchElementException();
+          }
+          T next = element.apply(current.peek());
+          current = current.pop();
+          remaining--;
+          return next;
+        }
+      };
+    }
   }
 
   /**
@@ -114,35 +172,34 @@ public class ProgramState {
     }
   }
 
-  private int hashCode;
-
   private final int constraintSize;
-  public static final ProgramState EMPTY_STATE = new ProgramState(
-    PCollections.emptyMap(),
-    PCollections.emptyMap(),
-    PCollections.<SymbolicValue, ConstraintsByDomain>emptyMap()
-      .put(SymbolicValue.NULL_LITERAL, ConstraintsByDomain.empty().put(ObjectConstraint.NULL))
-      .put(SymbolicValue.TRUE_LITERAL, ConstraintsByDomain.empty().put(BooleanConstraint.TRUE).put(ObjectConstraint.NOT_NULL))
-      .put(SymbolicValue.FALSE_LITERAL, ConstraintsByDomain.empty().put(BooleanConstraint.FALSE).put(ObjectConstraint.NOT_NULL)),
-        PCollections.emptyMap(),
-    PCollections.emptyStack(),
-    null,
-    null);
-
-  private final PMap<ProgramPoint, Integer> visitedPoints;
-  private final PStack<SymbolicValueSymbol> stack;
+  public static final ProgramState EMPTY_STATE = emptyState();
+
+  private final PIntMap<Integer> visitedPoints;
+  private final OperandStack stack;
   @Nullable
   private SymbolicValue.ExceptionalSymbolicValue entryException;
-  private final PMap<SymbolicValue, Integer> references;
-  private SymbolicValue exitSymbolicValue;
+  private final ReferenceCounts references;
+  private final SymbolicValue exitSymbolicValue;
   final PMap<Symbol, SymbolicValue> values;
-  final PMap<Integer, SymbolicValue> valuesByIndex;
+  final PIntMap<SymbolicValue> valuesByIndex;
   final PMap<SymbolicValue, ConstraintsByDomain> constraints;
-
-  private ProgramState(PMap<Symbol, SymbolicValue> values,PMap<Integer, SymbolicValue> valuesByIndex, PMap<SymbolicValue, Integer> references,
-                       PMap<SymbolicValue, ConstraintsByDomain> constraints, PMap<ProgramPoint, Integer> visitedPoints,
-                       PStack<SymbolicValueSymbol> stack, SymbolicValue exitSymbolicValue,
-                       @Nullable SymbolicValue.ExceptionalSymbolicValue entryException) {
+  /**
+   * Relations having the TRUE constraint, kept up to date with the constraints so that they are known without going through all of them.
+   */
+  private final RelationIndex relations;
+  /**
+   * Hashes of the bindings and of the constraints, updated with each change rather than computed by going through them.
+   * The stack keeps its own hash, and the exit value is not hashed, as only the states ending a path of the method have one.
+   */
+  private final int valuesHash;
+  private final int constraintsHash;
+
+  private ProgramState(PMap<Symbol, SymbolicValue> values, PIntMap<SymbolicValue> valuesByIndex, ReferenceCounts references,
+                       PMap<SymbolicValue, ConstraintsByDomain> constraints, PIntMap<Integer> visitedPoints,
+                       OperandStack stack, SymbolicValue exitSymbolicValue,
+                       @Nullable SymbolicValue.ExceptionalSymbolicValue entryException, RelationIndex relations,
+                       int valuesHash, int constraintsHash) {
     this.values = values;
     this.valuesByIndex = valuesByIndex;
     this.references = references;
@@ -151,25 +208,32 @@ public class ProgramState {
     this.stack = stack;
     this.exitSymbolicValue = exitSymbolicValue;
     this.entryException = entryException;
+    this.relations = relations;
+    this.valuesHash = valuesHash;
+    this.constraintsHash = constraintsHash;
     constraintSize = 3;
   }
 
-  private ProgramState(PMap<Symbol, SymbolicValue> values, PMap<SymbolicValue, Integer> references,
-                       PMap<SymbolicValue, ConstraintsByDomain> constraints, PMap<ProgramPoint, Integer> visitedPoints,
-                       PStack<SymbolicValueSymbol> stack, SymbolicValue exitSymbolicValue,
-                       @Nullable SymbolicValue.ExceptionalSymbolicValue entryException) {
+  private ProgramState(PMap<Symbol, SymbolicValue> values, ReferenceCounts references,
+                       PMap<SymbolicValue, ConstraintsByDomain> constraints, PIntMap<Integer> visitedPoints,
+                       OperandStack stack, SymbolicValue exitSymbolicValue,
+                       @Nullable SymbolicValue.ExceptionalSymbolicValue entryException, RelationIndex relations,
+                       int valuesHash, int constraintsHash) {
     this.values = values;
-    this.valuesByIndex = PCollections.emptyMap();
+    this.valuesByIndex = PIntMap.empty();
     this.references = references;
     this.constraints = constraints;
     this.visitedPoints = visitedPoints;
     this.stack = stack;
     this.exitSymbolicValue = exitSymbolicValue;
     this.entryException = entryException;
+    this.relations = relations;
+    this.valuesHash = valuesHash;
+    this.constraintsHash = constraintsHash;
     constraintSize = 3;
   }
 
-  private ProgramState(ProgramState ps, PStack<SymbolicValueSymbol> newStack) {
+  private ProgramState(ProgramState ps, OperandStack newStack) {
     values = ps.values;
     valuesByIndex = ps.valuesByIndex;
     references = ps.references;
@@ -179,9 +243,27 @@ public class ProgramState {
     exitSymbolicValue = ps.exitSymbolicValue;
     stack = newStack;
     entryException = ps.entryException;
+    relations = ps.relations;
+    valuesHash = ps.valuesHash;
+    constraintsHash = ps.constraintsHash;
+  }
+
+  private ProgramState(ProgramState ps, @Nullable SymbolicValue newExitSymbolicValue) {
+    values = ps.values;
+    valuesByIndex = ps.valuesByIndex;
+    references = ps.references;
+    constraints = ps.constraints;
+    constraintSize = ps.constraintSize;
+    visitedPoints = ps.visitedPoints;
+    exitSymbolicValue = newExitSymbolicValue;
+    stack = ps.stack;
+    entryException = ps.entryException;
+    relations = ps.relations;
+    valuesHash = ps.valuesHash;
+    constraintsHash = ps.constraintsHash;
   }
 
-  private ProgramState(ProgramState ps, PMap<SymbolicValue, ConstraintsByDomain> newConstraints) {
+  private ProgramState(ProgramState ps, PMap<SymbolicValue, ConstraintsByDomain> newConstraints, int newConstraintsHash, RelationIndex newRelations) {
     values = ps.values;
     valuesByIndex = ps.valuesByIndex;
     references = ps.references;
@@ -191,10 +273,52 @@ public class ProgramState {
     exitSymbolicValue = ps.exitSymbolicValue;
     stack = ps.stack;
     entryException = ps.entryException;
+    relations = newRelations;
+    valuesHash = ps.valuesHash;
+    constraintsHash = newConstraintsHash;
+  }
+
+  private ProgramState(ProgramState ps, PMap<Symbol, SymbolicValue> equalValues, PMap<SymbolicValue, ConstraintsByDomain> equalConstraints) {
+    values = equalValues;
+    valuesByIndex = ps.valuesByIndex;
+    references = ps.references;
+    constraints = equalConstraints;
+    constraintSize = ps.constraintSize;
+    visitedPoints = ps.visitedPoints;
+    exitSymbolicValue = ps.exitSymbolicValue;
+    stack = ps.stack;
+    entryException = ps.entryException;
+    relations = ps.relations;
+    valuesHash = ps.valuesHash;
+    constraintsHash = ps.constraintsHash;
+  }
+
+  private static ProgramState emptyState() {
+    ConstraintsByDomain nullConstraints = ConstraintsByDomain.empty().put(ObjectConstraint.NULL);
+    ConstraintsByDomain trueConstraints = ConstraintsByDomain.empty().put(BooleanConstraint.TRUE).put(ObjectConstraint.NOT_NULL);
+    ConstraintsByDomain falseConstraints = ConstraintsByDomain.empty().put(BooleanConstraint.FALSE).put(ObjectConstraint.NOT_NULL);
+    PMap<SymbolicValue, ConstraintsByDomain> literalConstraints = PCollections.<SymbolicValue, ConstraintsByDomain>emptyMap()
+      .put(SymbolicValue.NULL_LITERAL, nullConstraints)
+      .put(SymbolicValue.TRUE_LITERAL, trueConstraints)
+      .put(SymbolicValue.FALSE_LITERAL, falseConstraints);
+    int literalConstraintsHash = entryHash(SymbolicValue.NULL_LITERAL, nullConstraints)
+      + entryHash(SymbolicValue.TRUE_LITERAL, trueConstraints)
+      + entryHash(SymbolicValue.FALSE_LITERAL, falseConstraints);
+    return new ProgramState(PCollections.emptyMap(), ReferenceCounts.EMPTY, literalConstraints, PIntMap.empty(), OperandStack.EMPTY,
+      null, null, RelationIndex.EMPTY, 0, literalConstraintsHash);
+  }
+
+  /**
+   * Hash of an entry of the bindings or of the constraints, following the contract of {@link java.util.Map#hashCode()}:
+   * the hash of a map is the sum of the hashes of its entries, whatever the order in which they have been added.
+   */
+  private static int entryHash(Object key, @Nullable Object value) {
+    return value == null ? 0 : (key.hashCode() ^ value.hashCode());
   }
 
   public ProgramState withEntryException(@Nullable SymbolicValue.ExceptionalSymbolicValue exception) {
-    return new ProgramState(values, valuesByIndex, references, constraints, visitedPoints, stack, exitSymbolicValue, exception);
+    return new ProgramState(values, valuesByIndex, references, constraints, visitedPoints, stack, exitSymbolicValue, exception, relations,
+      valuesHash, constraintsHash);
   }
 
   @CheckForNull
@@ -203,30 +327,30 @@ public class ProgramState {
   }
 
   public ProgramState stackValue(SymbolicValue sv) {
-    return new ProgramState(this, stack.push(new SymbolicValueSymbol(sv, null)));
+    return stackValue(sv, null);
   }
 
   public ProgramState stackValue(SymbolicValue sv, @Nullable Symbol symbol) {
-    return new ProgramState(this, stack.push(new SymbolicValueSymbol(sv, symbol)));
+    SymbolicValueSymbol valueSymbol = new SymbolicValueSymbol(sv, symbol);
+    return new ProgramState(this, stack.push(valueSymbol));
   }
 
   ProgramState clearStack() {
-    return stack.isEmpty() ? this : new ProgramState(this, PCollections.emptyStack());
+    return stack.isEmpty() ? this : new ProgramState(this, OperandStack.EMPTY);
   }
 
   public Pop unstackValue(int nbElements) {
     if (nbElements == 0 || stack.isEmpty()) {
-      return new Pop(this, Collections.emptyList());
+      return new Pop(this, stack, 0);
     }
 
-    // FIXME can be made more efficient by reusing sub collection of PStack instead of copying to the new list
-    PStack<SymbolicValueSymbol> newStack = stack;
-    List<SymbolicValueSymbol> result = new ArrayList<>();
-    for (int i = 0; i < nbElements && !newStack.isEmpty(); i++) {
-      result.add(newStack.peek());
+    // popped values are read from the current stack, which is kept by the new state
+    int popped = Math.min(nbElements, stack.size());
+    OperandStack newStack = stack;
+    for (int i = 0; i < popped; i++) {
       newStack = newStack.pop();
     }
-    return new Pop(new ProgramState(this, newStack), result);
+    return new Pop(new ProgramState(this, newStack), stack, popped);
   }
 
   @CheckForNull
@@ -243,21 +367,23 @@ public class ProgramState {
   }
 
   public List<SymbolicValue> peekValues(int n) {
-    return peekValuesAndSymbols(n).stream().map(SymbolicValueSymbol::symbolicValue).toList();
+    checkStackDepth(n);
+    return new StackSegment<>(stack, n, SymbolicValueSymbol::symbolicValue);
   }
 
   public List<SymbolicValueSymbol> peekValuesAndSymbols(int n) {
-    List<SymbolicValueSymbol> result = new ArrayList<>();
-    PStack<SymbolicValueSymbol> tmpStack = this.stack;
-    for (int i = 0; i < n; i++) {
-      result.add(tmpStack.peek());
-      tmpStack = tmpStack.pop();
+    checkStackDepth(n);
+    return new StackSegment<>(stack, n, Function.identity());
+  }
+
+  private void checkStackDepth(int n) {
+    if (stack.size() < n) {
+      throw new IllegalStateException("Stack has only " + stack.size() + " values, " + n + " were requested");
     }
-    return Collections.unmodifiableList(result);
   }
 
   public int numberOfTimeVisited(ProgramPoint programPoint) {
-    Integer count = visitedPoints.get(programPoint);
+    Integer count = visitedPoints.get(visitId(programPoint));
     return count == null ? 0 : count;
   }
 
@@ -270,7 +396,8 @@ public class ProgramState {
       return false;
     }
     ProgramState that = (ProgramState) o;
-    return Objects.equals(values, that.values) &&
+    return hashCode() == that.hashCode() &&
+      Objects.equals(values, that.values) &&
       Objects.equals(constraints, that.constraints) &&
       Objects.equals(exitSymbolicValue, that.exitSymbolicValue) &&
       Objects.equals(stack, that.stack);
@@ -278,10 +405,38 @@ public class ProgramState {
 
   @Override
   public int hashCode() {
-    if (hashCode == 0) {
-      hashCode = Objects.hash(values, constraints, peekValue());
+    return 31 * (31 * valuesHash + constraintsHash) + stack.hashCode();
+  }
+
+  /**
+   * @return a state equal to this one, whose symbol bindings and constraints are their canonical instances
+   */
+  ProgramState internParts(StateInterner interner) {
+    PMap<Symbol, SymbolicValue> internedValues = interner.values(values);
+    PMap<SymbolicValue, ConstraintsByDomain> internedConstraints = interner.constraints(constraints);
+    if (internedValues == values && internedConstraints == constraints) {
+      return this;
     }
-    return hashCode;
+    return new ProgramState(this, internedValues, internedConstraints);
+  }
+
+  /**
+   * A state is subsumed by another one when both bind the same symbols to the same values, with the same stack and exit value,
+   * and when every constraint of the other state also holds in this one: the other state is more general, and exploring
+   * this one would not lead to new states, only to more precise ones.
+   */
+  boolean isSubsumedBy(ProgramState other) {
+    if (!values.equals(other.values) || !Objects.equals(exitSymbolicValue, other.exitSymbolicValue) || !stack.equals(other.stack)) {
+      return false;
+    }
+    boolean[] subsumed = {true};
+    other.constraints.forEach((sv, otherConstraints) -> {
+      if (subsumed[0]) {
+        ConstraintsByDomain constraintsOnSv = constraints.get(sv);
+        subsumed[0] = constraintsOnSv != null && otherConstraints.stream().allMatch(constraintsOnSv::hasConstraint);
+      }
+    });
+    return subsumed[0];
   }
 
   @Override
@@ -290,26 +445,30 @@ public class ProgramState {
   }
 
   public ProgramState addConstraintTransitively(SymbolicValue symbolicValue, Constraint constraint) {
-    List<SymbolicValue> transitiveSymbolicValues = knownRelations().stream()
-      .filter(rsv -> rsv.isEquality() && (rsv.getLeftOp() == symbolicValue || rsv.getRightOp() == symbolicValue))
-      .map(rsv -> rsv.getLeftOp() == symbolicValue ? rsv.getRightOp() : rsv.getLeftOp())
-      .toList();
+    PSet<RelationalSymbolicValue> operandRelations = relations.byOperand.get(symbolicValue);
     ProgramState ps = addConstraint(symbolicValue, constraint);
-    for (SymbolicValue sv : transitiveSymbolicValues) {
-      ps = ps.addConstraint(sv, constraint);
+    if (operandRelations != null) {
+      for (RelationalSymbolicValue relation : operandRelations) {
+        if (relation.isEquality()) {
+          ps = ps.addConstraint(relation.getLeftOp() == symbolicValue ? relation.getRightOp() : relation.getLeftOp(), constraint);
+        }
+      }
     }
     return ps;
   }
 
-  public Set<RelationalSymbolicValue> knownRelations() {
-    if(knownRelations == null) {
-      knownRelations = Collections.unmodifiableSet(getValuesWithConstraints(BooleanConstraint.TRUE)
-        .stream()
-        .filter(RelationalSymbolicValue.class::isInstance)
-        .map(RelationalSymbolicValue.class::cast)
-        .collect(Collectors.toSet()));
-    }
-    return knownRelations;
+  /**
+   * @return the relations having the TRUE constraint, kept up to date with the constraints of this state
+   */
+  public PSet<RelationalSymbolicValue> knownRelations() {
+    return relations.all;
+  }
+
+  /**
+   * @return the relations having the TRUE constraint, indexed by each of their operands
+   */
+  public PMap<SymbolicValue, PSet<RelationalSymbolicValue>> knownRelationsByOperand() {
+    return relations.byOperand;
   }
 
   public ProgramState addConstraint(SymbolicValue symbolicValue, Constraint constraint) {
@@ -323,13 +482,44 @@ public class ProgramState {
   }
 
   public ProgramState addConstraints(SymbolicValue symbolicValue, ConstraintsByDomain constraintsForSV) {
+    ConstraintsByDomain previousConstraints = constraints.get(symbolicValue);
     PMap<SymbolicValue, ConstraintsByDomain> newConstraints = constraints.put(symbolicValue, constraintsForSV);
     if (newConstraints != constraints) {
-      return new ProgramState(this, newConstraints);
+      int newConstraintsHash = constraintsHash - entryHash(symbolicValue, previousConstraints) + entryHash(symbolicValue, constraintsForSV);
+      return new ProgramState(this, newConstraints, newConstraintsHash, relations.update(symbolicValue, constraintsForSV));
     }
     return this;
   }
 
+  private ProgramState removeConstraints(SymbolicValue sv, ConstraintsByDomain previousConstraints) {
+    return new ProgramState(this, constraints.remove(sv), constraintsHash - entryHash(sv, previousConstraints), relations.update(sv, null));
+  }
+
+  ProgramState replaceConstraints(SymbolicValue sv, ConstraintsByDomain newConstraints) {
+    if (newConstraints.isEmpty()) {
+      ConstraintsByDomain previousConstraints = constraints.get(sv);
+      return previousConstraints == null ? this : removeConstraints(sv, previousConstraints);
+    }
+    return addConstraints(sv, newConstraints);
+  }
+
+  /**
+   * Removes the constraints of the given value and of every value referencing it, such as the relations it is an operand of.
+   */
+  ProgramState forget(SymbolicValue symbolicValue) {
+    List<SymbolicValue> constrainedValues = new ArrayList<>();
+    constraints.forEach((sv, svConstraints) -> {
+      if (sv.equals(symbolicValue) || sv.references(symbolicValue)) {
+        constrainedValues.add(sv);
+      }
+    });
+    ProgramState ps = this;
+    for (SymbolicValue sv : constrainedValues) {
+      ps = ps.removeConstraints(sv, ps.constraints.get(sv));
+    }
+    return ps;
+  }
+
   public ProgramState removeConstraintsOnDomain(SymbolicValue sv, Class<? extends Constraint> domain) {
     ConstraintsByDomain svConstraint = constraints.get(sv);
     if(svConstraint == null) {
@@ -337,7 +527,7 @@ public class ProgramState {
     }
     ConstraintsByDomain newConstraintForSv = svConstraint.remove(domain);
     if(newConstraintForSv.isEmpty()) {
-      return new ProgramState(this, constraints.remove(sv));
+      return removeConstraints(sv, svConstraint);
     }
     return addConstraints(sv, newConstraintForSv);
   }
@@ -353,13 +543,15 @@ public class ProgramState {
     }
     SymbolicValue oldValue = values.get(symbol);
     if (oldValue == null || oldValue != value) {
-      PMap<SymbolicValue, Integer> newReferences = references;
+      ReferenceCounts newReferences = references;
       if (oldValue != null) {
         newReferences = decreaseReference(newReferences, oldValue);
       }
       newReferences = increaseReference(newReferences, value);
       PMap<Symbol, SymbolicValue> newValues = values.put(symbol, value);
-      return new ProgramState(newValues, newReferences, constraints, visitedPoints, stack, exitSymbolicValue, entryException);
+      int newValuesHash = valuesHash - entryHash(symbol, oldValue) + entryHash(symbol, value);
+      return new ProgramState(newValues, newReferences, constraints, visitedPoints, stack, exitSymbolicValue, entryException, relations,
+        newValuesHash, constraintsHash);
     }
     return this;
   }
@@ -368,13 +560,13 @@ public class ProgramState {
     return isField(symbol) && symbol.isVolatile();
   }
 
-  private static PMap<SymbolicValue, Integer> decreaseReference(PMap<SymbolicValue, Integer> givenReferences, SymbolicValue sv) {
+  private static ReferenceCounts decreaseReference(ReferenceCounts givenReferences, SymbolicValue sv) {
     Integer value = givenReferences.get(sv);
     Objects.requireNonNull(value);
     return givenReferences.put(sv, value - 1);
   }
 
-  private static PMap<SymbolicValue, Integer> increaseReference(PMap<SymbolicValue, Integer> givenReferences, SymbolicValue sv) {
+  private static ReferenceCounts increaseReference(ReferenceCounts givenReferences, SymbolicValue sv) {
     Integer value = givenReferences.get(sv);
     if (value == null) {
       return givenReferences.put(sv, 1);
@@ -390,61 +582,115 @@ public class ProgramState {
 
   private static boolean isDisposable(SymbolicValue symbolicValue, @Nullable ConstraintsByDomain constraints) {
     //FIXME this should be handle with callbacks rather than keeping those value in programstate
-    return SymbolicValue.isDisposable(symbolicValue) &&
-      (constraints == null || NON_DISPOSABLE_CONSTRAINTS.stream().map(constraints::get).allMatch(Objects::isNull));
+    if (!SymbolicValue.isDisposable(symbolicValue)) {
+      return false;
+    }
+    if (constraints != null) {
+      for (Class<? extends Constraint> domain : NON_DISPOSABLE_CONSTRAINTS) {
+        if (constraints.get(domain) != null) {
+          return false;
+        }
+      }
+    }
+    return true;
   }
 
-  private static boolean inStack(PStack<SymbolicValueSymbol> stack, SymbolicValue symbolicValue) {
-    return stack.anyMatch(valueSymbol -> valueSymbol.sv.equals(symbolicValue) || valueSymbol.sv.references(symbolicValue));
+  public ProgramState cleanupDeadSymbols(Set<Symbol> liveVariables, Collection<SymbolicValue> protectedSymbolicValues) {
+    DeadSymbolsCleanup cleanup = new DeadSymbolsCleanup(protectedSymbolicValues);
+    values.forEach((symbol, symbolicValue) -> {
+      if (symbol.isLocalVariable() && !liveVariables.contains(symbol)) {
+        cleanup.remove(symbol, symbolicValue);
+      }
+    });
+    return cleanup.newState();
   }
 
-  public ProgramState cleanupDeadSymbols(Set<Symbol> liveVariables, Collection<SymbolicValue> protectedSymbolicValues) {
-    class CleanAction implements BiConsumer<Symbol, SymbolicValue> {
-      boolean newProgramState = false;
-      PMap<Symbol, SymbolicValue> newValues = values;
-      PMap<SymbolicValue, Integer> newReferences = references;
-      PMap<SymbolicValue, ConstraintsByDomain> newConstraints = constraints;
+  /**
+   * Same cleanup as {@link #cleanupDeadSymbols(Set, Collection)}, when the local variables which can be dead are known: only their
+   * bindings are looked up, rather than going through all of them.
+   *
+   * @param deadSymbols local variables which are not live anymore, whether they are bound or not
+   */
+  public ProgramState removeDeadSymbols(Collection<Symbol> deadSymbols, Collection<SymbolicValue> protectedSymbolicValues) {
+    DeadSymbolsCleanup cleanup = new DeadSymbolsCleanup(protectedSymbolicValues);
+    for (Symbol symbol : deadSymbols) {
+      SymbolicValue symbolicValue = values.get(symbol);
+      if (symbolicValue != null) {
+        cleanup.remove(symbol, symbolicValue);
+      }
+    }
+    return cleanup.newState();
+  }
 
-      @Override
-      public void accept(Symbol symbol, SymbolicValue symbolicValue) {
-        if (symbol.isLocalVariable() && !liveVariables.contains(symbol) && !protectedSymbolicValues.contains(symbolicValue)) {
-          newProgramState = true;
-          newValues = newValues.remove(symbol);
-          newReferences = decreaseReference(newReferences, symbolicValue);
-          if (!isReachable(symbolicValue, newReferences) && isDisposable(symbolicValue, newConstraints.get(symbolicValue)) && !inStack(stack, symbolicValue)) {
-            newConstraints = newConstraints.remove(symbolicValue);
-            newReferences = newReferences.remove(symbolicValue);
-          }
-        }
+  /**
+   * Removes the bindings of dead symbols, and the constraints of the values which are not referenced anymore once they are removed.
+   */
+  private final class DeadSymbolsCleanup {
+    private final Collection<SymbolicValue> protectedSymbolicValues;
+    private boolean newProgramState = false;
+    private PMap<Symbol, SymbolicValue> newValues = values;
+    private int newValuesHash = valuesHash;
+    private ReferenceCounts newReferences = references;
+    private PMap<SymbolicValue, ConstraintsByDomain> newConstraints = constraints;
+    private int newConstraintsHash = constraintsHash;
+    private RelationIndex newRelations = relations;
+
+    private DeadSymbolsCleanup(Collection<SymbolicValue> protectedSymbolicValues) {
+      this.protectedSymbolicValues = protectedSymbolicValues;
+    }
+
+    private void remove(Symbol symbol, SymbolicValue symbolicValue) {
+      if (protectedSymbolicValues.contains(symbolicValue)) {
+        return;
+      }
+      newProgramState = true;
+      newValues = newValues.remove(symbol);
+      newValuesHash -= entryHash(symbol, symbolicValue);
+      newReferences = decreaseReference(newReferences, symbolicValue);
+      ConstraintsByDomain svConstraints = newConstraints.get(symbolicValue);
+      if (!isReachable(symbolicValue, newReferences) && isDisposable(symbolicValue, svConstraints) && !stack.contains(symbolicValue)) {
+        newConstraints = newConstraints.remove(symbolicValue);
+        newConstraintsHash -= entryHash(symbolicValue, svConstraints);
+        newReferences = newReferences.remove(symbolicValue);
+        newRelations = newRelations.update(symbolicValue, null);
       }
     }
-    CleanAction cleanAction = new CleanAction();
-    values.forEach(cleanAction);
-    return cleanAction.newProgramState ?
-      new ProgramState(cleanAction.newValues, cleanAction.newReferences, cleanAction.newConstraints, visitedPoints, stack,
-        exitSymbolicValue, entryException)
-      : this;
+
+    private ProgramState newState() {
+      return newProgramState ?
+        new ProgramState(newValues, newReferences, newConstraints, visitedPoints, stack, exitSymbolicValue, entryException, newRelations, newValuesHash,
+          newConstraintsHash)
+        : ProgramState.this;
+    }
   }
 
   public ProgramState cleanupConstraints(Collection<SymbolicValue> protectedSymbolicValues) {
     class CleanAction implements BiConsumer<SymbolicValue, ConstraintsByDomain> {
       boolean newProgramState = false;
       PMap<SymbolicValue, ConstraintsByDomain> newConstraints = constraints;
-      PMap<SymbolicValue, Integer> newReferences = references;
+      int newConstraintsHash = constraintsHash;
+      ReferenceCounts newReferences = references;
+      RelationIndex newRelations = relations;
 
       @Override
       public void accept(SymbolicValue symbolicValue, ConstraintsByDomain constraintPMap) {
+        // removing the constraints of a value does not change whether it is reachable: it is only checked once per value
+        if (protectedSymbolicValues.contains(symbolicValue) || isReachable(symbolicValue, references) || stack.contains(symbolicValue)) {
+          return;
+        }
         constraintPMap.forEach((domain, constraint) -> {
-          if (!protectedSymbolicValues.contains(symbolicValue)
-            && !isReachable(symbolicValue, newReferences)
-            && isDisposable(symbolicValue, constraint)
-            && !inStack(stack, symbolicValue)) {
+          if (isDisposable(symbolicValue, constraint)) {
             newProgramState = true;
-            ConstraintsByDomain removed = newConstraints.get(symbolicValue).remove(domain);
+            ConstraintsByDomain svConstraints = newConstraints.get(symbolicValue);
+            ConstraintsByDomain removed = svConstraints.remove(domain);
+            newConstraintsHash -= entryHash(symbolicValue, svConstraints);
             if (removed.isEmpty()) {
               newConstraints = newConstraints.remove(symbolicValue);
+              newRelations = newRelations.update(symbolicValue, null);
             } else {
               newConstraints = newConstraints.put(symbolicValue, removed);
+              newConstraintsHash += entryHash(symbolicValue, removed);
+              newRelations = newRelations.update(symbolicValue, removed);
             }
             newReferences = newReferences.remove(symbolicValue);
           }
@@ -453,8 +699,8 @@ public class ProgramState {
     }
     CleanAction cleanAction = new CleanAction();
     constraints.forEach(cleanAction);
-    return cleanAction.newProgramState ? new ProgramState(values, cleanAction.newReferences, cleanAction.newConstraints, visitedPoints, stack, exitSymbolicValue, entryException
-    ) : this;
+    return cleanAction.newProgramState ? new ProgramState(values, cleanAction.newReferences, cleanAction.newConstraints, visitedPoints, stack, exitSymbolicValue, entryException,
+      cleanAction.newRelations, valuesHash, cleanAction.newConstraintsHash) : this;
   }
 
   ProgramState resetFieldValues(ConstraintManager constraintManager, boolean resetOnlyStaticFields) {
@@ -475,7 +721,7 @@ public class ProgramState {
     return symbol.isVariableSymbol() && !symbol.owner().isMethodSymbol();
   }
 
-  private static boolean isReachable(SymbolicValue symbolicValue, PMap<SymbolicValue, Integer> references) {
+  private static boolean isReachable(SymbolicValue symbolicValue, ReferenceCounts references) {
     Integer integer = references.get(symbolicValue);
     return integer != null && integer > 0;
   }
@@ -484,8 +730,18 @@ public class ProgramState {
     return isReachable(symbolicValue, references);
   }
 
+  /**
+   * Visits are counted by {@link ProgramPoint#id}: the program point must be taken from the {@link ProgramPoints} of the explored CFG.
+   */
   public ProgramState visitedPoint(ProgramPoint programPoint, int nbOfVisit) {
-    return new ProgramState(values, valuesByIndex, references, constraints, visitedPoints.put(programPoint, nbOfVisit), stack, exitSymbolicValue, entryException);
+    return new ProgramState(values, valuesByIndex, references, constraints, visitedPoints.put(visitId(programPoint), nbOfVisit), stack, exitSymbolicValue, entryException,
+      relations, valuesHash, constraintsHash);
+  }
+
+  private static int visitId(ProgramPoint programPoint) {
+    // program points outside of the table of the CFG all have the same id: their visits would be mixed up
+    Preconditions.checkState(programPoint.id >= 0, "Visits are only counted for program points of the explored CFG: %s", programPoint);
+    return programPoint.id;
   }
 
   @Nullable
@@ -527,12 +783,12 @@ public class ProgramState {
     return result;
   }
 
-  public void storeExitValue() {
-    storeExitValue(peekValue());
+  public ProgramState storeExitValue() {
+    return storeExitValue(peekValue());
   }
 
-  public void storeExitValue(@Nullable SymbolicValue exitSymbolicValue) {
-    this.exitSymbolicValue = exitSymbolicValue;
+  public ProgramState storeExitValue(@Nullable SymbolicValue exitSymbolicValue) {
+    return new ProgramState(this, exitSymbolicValue);
   }
 
   @CheckForNull
@@ -567,4 +823,113 @@ public class ProgramState {
     });
     return Collections.unmodifiableSet(result);
   }
+
+  /**
+   * Relations having the TRUE constraint, indexed by operand: constraints can then be propagated to the values equal to a given one,
+   * and new relations combined with the known ones, without going through all the relations. Relations being closed under
+   * transitivity, the operands of the equalities of a value are all the values known to be equal to it.
+   */
+  private static final class RelationIndex {
+    private static final RelationIndex EMPTY = new RelationIndex(PCollections.emptySet(), PCollections.emptyMap());
+
+    private final PSet<RelationalSymbolicValue> all;
+    private final PMap<SymbolicValue, PSet<RelationalSymbolicValue>> byOperand;
+
+    private RelationIndex(PSet<RelationalSymbolicValue> all, PMap<SymbolicValue, PSet<RelationalSymbolicValue>> byOperand) {
+      this.all = all;
+      this.byOperand = byOperand;
+    }
+
+    /**
+     * @param svConstraints new constraints of the given symbolic value, null when they are removed
+     */
+    private RelationIndex update(SymbolicValue sv, @Nullable ConstraintsByDomain svConstraints) {
+      if (!(sv instanceof RelationalSymbolicValue relation)) {
+        return this;
+      }
+      boolean known = svConstraints != null && svConstraints.get(BooleanConstraint.class) == BooleanConstraint.TRUE;
+      PSet<RelationalSymbolicValue> newAll = known ? all.add(relation) : all.remove(relation);
+      if (newAll == all) {
+        return this;
+      }
+      PMap<SymbolicValue, PSet<RelationalSymbolicValue>> newByOperand = updateOperand(byOperand, relation.getLeftOp(), relation, known);
+      newByOperand = updateOperand(newByOperand, relation.getRightOp(), relation, known);
+      return new RelationIndex(newAll, newByOperand);
+    }
+
+    private static PMap<SymbolicValue, PSet<RelationalSymbolicValue>> updateOperand(PMap<SymbolicValue, PSet<RelationalSymbolicValue>> relationsByOperand,
+      SymbolicValue operand, RelationalSymbolicValue relation, boolean known) {
+      PSet<RelationalSymbolicValue> operandRelations = relationsByOperand.get(operand);
+      if (operandRelations == null) {
+        operandRelations = PCollections.emptySet();
+      }
+      operandRelations = known ? operandRelations.add(relation) : operandRelations.remove(relation);
+      return operandRelations.isEmpty() ? relationsByOperand.remove(operand) : relationsByOperand.put(operand, operandRelations);
+    }
+  }
+
+  /**
+   * Number of symbols referencing each symbolic value. Symbolic values are looked up by hash code in an int-keyed trie, the ones
+   * having the same hash code being chained: symbolic values which are equal without being the same instance, like relations,
+   * then share their count.
+   */
+  private static final class ReferenceCounts {
+    private static final ReferenceCounts EMPTY = new ReferenceCounts(PIntMap.empty());
+
+    private final PIntMap<ReferenceCount> entries;
+
+    private ReferenceCounts(PIntMap<ReferenceCount> entries) {
+      this.entries = entries;
+    }
+
+    @CheckForNull
+    private Integer get(SymbolicValue sv) {
+      for (ReferenceCount entry = entries.get(sv.hashCode()); entry != null; entry = entry.next) {
+        if (entry.sv.equals(sv)) {
+          return entry.count;
+        }
+      }
+      return null;
+    }
+
+    private ReferenceCounts put(SymbolicValue sv, int count) {
+      int hash = sv.hashCode();
+      return new ReferenceCounts(entries.put(hash, new ReferenceCount(sv, count, without(entries.get(hash), sv))));
+    }
+
+    private ReferenceCounts remove(SymbolicValue sv) {
+      int hash = sv.hashCode();
+      ReferenceCount bucket = entries.get(hash);
+      ReferenceCount newBucket = without(bucket, sv);
+      if (newBucket == bucket) {
+        return this;
+      }
+      return new ReferenceCounts(newBucket == null ? entries.remove(hash) : entries.put(hash, newBucket));
+    }
+
+    @CheckForNull
+    private static ReferenceCount without(@Nullable ReferenceCount bucket, SymbolicValue sv) {
+      if (bucket == null) {
+        return null;
+      }
+      if (bucket.sv.equals(sv)) {
+        return bucket.next;
+      }
+      ReferenceCount next = without(bucket.next, sv);
+      return next == bucket.next ? bucket : new ReferenceCount(bucket.sv, bucket.count, next);
+    }
+  }
+
+  private static final class ReferenceCount {
+    private final SymbolicValue sv;
+    private final int count;
+    @Nullable
+    private final ReferenceCount next;
+
+    private ReferenceCount(SymbolicValue sv, int count, @Nullable ReferenceCount next) {
+      this.sv = sv;
+      this.count = count;
+      this.next = next;
+    }
+  }
 }
@@ -0,0 +1,60 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.sonar.java.se.constraint.ConstraintsByDomain;
+import org.sonar.java.se.symbolicvalues.SymbolicValue;
+import org.sonar.plugins.java.api.semantic.Symbol;
+import org.sonarsource.analyzer.commons.collections.PMap;
+
+/**
+ * Hash-consing of the parts of the program states of an exploded graph: symbol bindings, constraint maps and constraints of
+ * symbolic values built along different paths are replaced by a single canonical instance. They are then stored once, and
+ * comparing the states holding them mostly comes down to reference comparisons.
+ * Whole program states are not shared: equal states at the same program point already share their node.
+ */
+final class StateInterner {
+
+  private final Map<PMap<Symbol, SymbolicValue>, PMap<Symbol, SymbolicValue>> values = new HashMap<>();
+  private final Map<PMap<SymbolicValue, ConstraintsByDomain>, PMap<SymbolicValue, ConstraintsByDomain>> constraints = new HashMap<>();
+  private final Map<ConstraintsByDomain, ConstraintsByDomain> constraintsByDomain = new HashMap<>();
+
+  PMap<Symbol, SymbolicValue> values(PMap<Symbol, SymbolicValue> symbolValues) {
+    return values.computeIfAbsent(symbolValues, k -> k);
+  }
+
+  PMap<SymbolicValue, ConstraintsByDomain> constraints(PMap<SymbolicValue, ConstraintsByDomain> svConstraints) {
+    PMap<SymbolicValue, ConstraintsByDomain> canonical = constraints.get(svConstraints);
+    if (canonical == null) {
+      canonical = svConstraints;
+      for (Map.Entry<SymbolicValue, ConstraintsByDomain> entry : svConstraints.entries()) {
+        ConstraintsByDomain canonicalConstraints = constraintsByDomain(entry.getValue());
+        if (canonicalConstraints != entry.getValue()) {
+          canonical = canonical.put(entry.getKey(), canonicalConstraints);
+        }
+      }
+      constraints.put(canonical, canonical);
+    }
+    return canonical;
+  }
+
+  ConstraintsByDomain constraintsByDomain(ConstraintsByDomain svConstraints) {
+    return constraintsByDomain.computeIfAbsent(svConstraints, k -> k);
+  }
+}
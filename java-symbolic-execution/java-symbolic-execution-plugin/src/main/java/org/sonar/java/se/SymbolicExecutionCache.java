@@ -0,0 +1,150 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.check.RuleProperty;
+import org.sonar.java.se.checks.SECheck;
+import org.sonar.plugins.java.api.InputFileScannerContext;
+import org.sonar.plugins.java.api.caching.CacheContext;
+
+/**
+ * Records in the analysis cache the files for which symbolic execution has been run, with a hash of their content, of the
+ * parameters of the active checks and of the settings of the engine changing the results. When a file is unchanged since the previous analysis, its exploration can be skipped: behaviors
+ * of methods are only used within the file, so nothing else depends on them.
+ * The decision is shared between the {@link SymbolicExecutionVisitor} and the {@link SECheck}s reporting its issues, so that
+ * either all of them or none of them skip the file.
+ */
+public class SymbolicExecutionCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SymbolicExecutionCache.class);
+  private static final String KEY_PREFIX = "java:se:";
+
+  private final byte[] configurationHash;
+  @Nullable
+  private InputFile lastInputFile;
+  private boolean lastInputFileUpToDate;
+
+  SymbolicExecutionCache(List<SECheck> seChecks, SymbolicExecutionSettings settings) {
+    MessageDigest digest = sha256();
+    seChecks.stream().map(SymbolicExecutionCache::configuration).sorted().forEach(check -> digest.update(check.getBytes(StandardCharsets.UTF_8)));
+    digest.update(settings.resultSettings().getBytes(StandardCharsets.UTF_8));
+    configurationHash = digest.digest();
+  }
+
+  /**
+   * @return the name of the check with the values of its rule parameters, as several instances of a rule template can be active
+   */
+  private static String configuration(SECheck check) {
+    List<String> parameters = new ArrayList<>();
+    for (Field field : check.getClass().getFields()) {
+      RuleProperty ruleProperty = field.getAnnotation(RuleProperty.class);
+      if (ruleProperty != null) {
+        try {
+          parameters.add(ruleProperty.key() + "=" + field.get(check));
+        } catch (IllegalAccessException e) {
+          throw new IllegalStateException(e);
+        }
+      }
+    }
+    Collections.sort(parameters);
+    return check.getClass().getName() + parameters;
+  }
+
+  /**
+   * @return true when the file has already been explored, with the same content and configuration, during the previous analysis.
+   * The result of the previous analysis is then kept for the next one.
+   */
+  public synchronized boolean isUpToDate(InputFileScannerContext context) {
+    InputFile inputFile = context.getInputFile();
+    if (inputFile.equals(lastInputFile)) {
+      return lastInputFileUpToDate;
+    }
+    lastInputFile = inputFile;
+    lastInputFileUpToDate = false;
+    CacheContext cacheContext = context.getCacheContext();
+    if (cacheContext == null || !cacheContext.isCacheEnabled() || inputFile.status() != InputFile.Status.SAME) {
+      return false;
+    }
+    String key = key(inputFile);
+    byte[] hash = hash(inputFile);
+    byte[] cachedHash = cacheContext.getReadCache().readBytes(key);
+    if (hash == null || !Arrays.equals(hash, cachedHash)) {
+      return false;
+    }
+    cacheContext.getWriteCache().copyFromPrevious(key);
+    lastInputFileUpToDate = true;
+    return true;
+  }
+
+  /**
+   * Records that the file has been explored.
+   */
+  synchronized void store(InputFileScannerContext context) {
+    CacheContext cacheContext = context.getCacheContext();
+    if (cacheContext == null || !cacheContext.isCacheEnabled()) {
+      return;
+    }
+    InputFile inputFile = context.getInputFile();
+    if (inputFile.equals(lastInputFile) && lastInputFileUpToDate) {
+      // already carried over from the previous analysis
+      return;
+    }
+    byte[] hash = hash(inputFile);
+    if (hash != null) {
+      cacheContext.getWriteCache().write(key(inputFile), hash);
+    }
+  }
+
+  private static String key(InputFile inputFile) {
+    return KEY_PREFIX + inputFile.key();
+  }
+
+  @CheckForNull
+  private byte[] hash(InputFile inputFile) {
+    MessageDigest digest = sha256();
+    digest.update(configurationHash);
+    try {
+      digest.update(inputFile.contents().getBytes(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      LOG.debug("Unable to read the content of {}, symbolic execution results are not cached.", inputFile);
+      return null;
+    }
+    return digest.digest();
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
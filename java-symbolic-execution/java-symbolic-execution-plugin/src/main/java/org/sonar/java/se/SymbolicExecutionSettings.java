@@ -0,0 +1,292 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.config.Configuration;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph;
+
+/**
+ * Tuning of the symbolic execution engine, read from the analysis properties.
+ * None of these properties are declared in the UI: they are meant to be set on the scanner command line.
+ */
+public class SymbolicExecutionSettings {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SymbolicExecutionSettings.class);
+
+  /**
+   * Number of threads used to explore the methods of a single file. {@code 1} (the default) keeps the sequential exploration.
+   */
+  public static final String PARALLELISM_KEY = "sonar.java.se.parallelism";
+  private static final int DEFAULT_PARALLELISM = 1;
+
+  /**
+   * Order in which the nodes of the exploded graph are explored, see {@link WorkList.Strategy}: {@code dfs} (the default),
+   * {@code bfs} or {@code rpo}.
+   */
+  public static final String EXPLORATION_STRATEGY_KEY = "sonar.java.se.explorationStrategy";
+  private static final WorkList.Strategy DEFAULT_EXPLORATION_STRATEGY = WorkList.Strategy.DFS;
+
+  /**
+   * When enabled, a state is not explored when a more general state has already been explored at the same program point.
+   * Fewer states are explored, at the cost of precision: issues only raised on the more precise state can be missed.
+   */
+  public static final String SUBSUMPTION_KEY = "sonar.java.se.subsumption";
+
+  /**
+   * When enabled, local variables modified by a loop are generalized when a path reaches the head of the loop again,
+   * so that the loop converges instead of being unrolled up to the maximum number of visits of a program point.
+   */
+  public static final String LOOP_WIDENING_KEY = "sonar.java.se.loopWidening";
+
+  /**
+   * When enabled, the symbol bindings and constraints of the states explored for a method are hash-consed: equal ones built
+   * along different paths are stored once, which reduces the memory used by methods converging to the same states.
+   */
+  public static final String HASH_CONSING_KEY = "sonar.java.se.hashConsing";
+
+  /**
+   * Maximum number of steps of the exploration of a method. With the adaptive budget, this is the budget of a method of
+   * average size.
+   */
+  public static final String MAX_STEPS_KEY = "sonar.java.se.maxSteps";
+  private static final int DEFAULT_MAX_STEPS = 16_000;
+
+  /**
+   * When enabled, the step budget of a method is proportional to the size of its CFG, within a quarter and four times
+   * the maximum number of steps.
+   */
+  public static final String ADAPTIVE_BUDGET_KEY = "sonar.java.se.adaptiveBudget";
+  private static final int STEPS_PER_CFG_ELEMENT = 100;
+  private static final int ADAPTIVE_BUDGET_FACTOR = 4;
+
+  /**
+   * Maximum number of states a method starts from: each nullable parameter doubles their number.
+   */
+  public static final String MAX_STARTING_STATES_KEY = "sonar.java.se.maxStartingStates";
+  // would correspond to 10 parameters annotated with @Nullable
+  private static final int DEFAULT_MAX_STARTING_STATES = 1_024;
+
+  /**
+   * Maximum number of states produced when learning constraints on nested boolean expressions.
+   */
+  public static final String MAX_NESTED_BOOLEAN_STATES_KEY = "sonar.java.se.maxNestedBooleanStates";
+
+  /**
+   * Number of constraints of a program state above which the exploration of a method stops, once half of its step budget is used.
+   */
+  public static final String MAX_STATE_CONSTRAINTS_KEY = "sonar.java.se.maxStateConstraints";
+  private static final int DEFAULT_MAX_STATE_CONSTRAINTS = 75;
+
+  /**
+   * Time budget in milliseconds for the exploration of a single method, including the flows computed by the checks.
+   * {@code 0} (the default) means no limit.
+   */
+  public static final String METHOD_TIMEOUT_KEY = "sonar.java.se.methodTimeoutMs";
+
+  /**
+   * Time budget in milliseconds shared by the explorations of all the methods of a file. {@code 0} (the default) means no limit.
+   */
+  public static final String FILE_TIMEOUT_KEY = "sonar.java.se.fileTimeoutMs";
+
+  /**
+   * When enabled, the yields of the paths fully explored before the exploration of a method is interrupted by a budget are kept.
+   * The behavior of the method is then partial: its callers use these yields, as well as the paths of an unknown method.
+   */
+  public static final String PARTIAL_YIELDS_KEY = "sonar.java.se.partialYields";
+
+  public static final SymbolicExecutionSettings DEFAULT = new SymbolicExecutionSettings(key -> Optional.empty());
+
+  private final int parallelism;
+  private final WorkList.Strategy explorationStrategy;
+  private final boolean subsumption;
+  private final boolean loopWidening;
+  private final boolean hashConsing;
+  private final int maxSteps;
+  private final boolean adaptiveBudget;
+  private final int maxStartingStates;
+  private final int maxNestedBooleanStates;
+  private final int maxStateConstraints;
+  private final long methodTimeout;
+  private final long fileTimeout;
+  private final boolean partialYields;
+
+  private SymbolicExecutionSettings(Function<String, Optional<String>> properties) {
+    this.parallelism = Math.max(1, intProperty(properties, PARALLELISM_KEY, DEFAULT_PARALLELISM));
+    this.explorationStrategy = strategyProperty(properties, EXPLORATION_STRATEGY_KEY, DEFAULT_EXPLORATION_STRATEGY);
+    this.subsumption = booleanProperty(properties, SUBSUMPTION_KEY);
+    this.loopWidening = booleanProperty(properties, LOOP_WIDENING_KEY);
+    this.hashConsing = booleanProperty(properties, HASH_CONSING_KEY);
+    this.maxSteps = Math.max(1, intProperty(properties, MAX_STEPS_KEY, DEFAULT_MAX_STEPS));
+    this.adaptiveBudget = booleanProperty(properties, ADAPTIVE_BUDGET_KEY);
+    this.maxStartingStates = Math.max(1, intProperty(properties, MAX_STARTING_STATES_KEY, DEFAULT_MAX_STARTING_STATES));
+    this.maxNestedBooleanStates = Math.max(1, intProperty(properties, MAX_NESTED_BOOLEAN_STATES_KEY, ExplodedGraphWalker.MAX_NESTED_BOOLEAN_STATES));
+    this.maxStateConstraints = Math.max(1, intProperty(properties, MAX_STATE_CONSTRAINTS_KEY, DEFAULT_MAX_STATE_CONSTRAINTS));
+    this.methodTimeout = Math.max(0, intProperty(properties, METHOD_TIMEOUT_KEY, 0));
+    this.fileTimeout = Math.max(0, intProperty(properties, FILE_TIMEOUT_KEY, 0));
+    this.partialYields = booleanProperty(properties, PARTIAL_YIELDS_KEY);
+  }
+
+  public static SymbolicExecutionSettings fromConfiguration(Configuration configuration) {
+    return new SymbolicExecutionSettings(configuration::get);
+  }
+
+  public int parallelism() {
+    return parallelism;
+  }
+
+  public boolean isParallel() {
+    return parallelism > 1;
+  }
+
+  public WorkList.Strategy explorationStrategy() {
+    return explorationStrategy;
+  }
+
+  public boolean subsumption() {
+    return subsumption;
+  }
+
+  public boolean loopWidening() {
+    return loopWidening;
+  }
+
+  public boolean hashConsing() {
+    return hashConsing;
+  }
+
+  public int maxSteps() {
+    return maxSteps;
+  }
+
+  public boolean adaptiveBudget() {
+    return adaptiveBudget;
+  }
+
+  /**
+   * @return the step budget for the exploration of the given CFG
+   */
+  public int maxSteps(ControlFlowGraph cfg) {
+    if (!adaptiveBudget) {
+      return maxSteps;
+    }
+    long size = 0;
+    for (ControlFlowGraph.Block block : cfg.blocks()) {
+      size += 1 + block.elements().size();
+    }
+    long budget = size * STEPS_PER_CFG_ELEMENT;
+    return (int) Math.max(maxSteps / ADAPTIVE_BUDGET_FACTOR, Math.min((long) maxSteps * ADAPTIVE_BUDGET_FACTOR, budget));
+  }
+
+  public int maxStartingStates() {
+    return maxStartingStates;
+  }
+
+  public int maxNestedBooleanStates() {
+    return maxNestedBooleanStates;
+  }
+
+  public int maxStateConstraints() {
+    return maxStateConstraints;
+  }
+
+  /**
+   * @return time budget of a method in milliseconds, {@code 0} when not limited
+   */
+  public long methodTimeout() {
+    return methodTimeout;
+  }
+
+  /**
+   * @return time budget of a file in milliseconds, {@code 0} when not limited
+   */
+  public long fileTimeout() {
+    return fileTimeout;
+  }
+
+  public boolean partialYields() {
+    return partialYields;
+  }
+
+  /**
+   * @return the settings changing the results of the exploration. Parallelism and hash-consing only change how they are computed,
+   * and time budgets are left out as results of methods reaching them depend on the machine anyway.
+   */
+  String resultSettings() {
+    return "explorationStrategy=" + explorationStrategy
+      + ", subsumption=" + subsumption
+      + ", loopWidening=" + loopWidening
+      + ", maxSteps=" + maxSteps
+      + ", adaptiveBudget=" + adaptiveBudget
+      + ", maxStartingStates=" + maxStartingStates
+      + ", maxNestedBooleanStates=" + maxNestedBooleanStates
+      + ", maxStateConstraints=" + maxStateConstraints
+      + ", partialYields=" + partialYields;
+  }
+
+  @Override
+  public String toString() {
+    return "parallelism=" + parallelism
+      + ", explorationStrategy=" + explorationStrategy
+      + ", subsumption=" + subsumption
+      + ", loopWidening=" + loopWidening
+      + ", hashConsing=" + hashConsing
+      + ", maxSteps=" + maxSteps
+      + ", adaptiveBudget=" + adaptiveBudget
+      + ", maxStartingStates=" + maxStartingStates
+      + ", maxNestedBooleanStates=" + maxNestedBooleanStates
+      + ", maxStateConstraints=" + maxStateConstraints
+      + ", methodTimeout=" + methodTimeout
+      + ", fileTimeout=" + fileTimeout
+      + ", partialYields=" + partialYields;
+  }
+
+  private static boolean booleanProperty(Function<String, Optional<String>> properties, String key) {
+    return properties.apply(key).map(String::trim).map(Boolean::parseBoolean).orElse(false);
+  }
+
+  private static int intProperty(Function<String, Optional<String>> properties, String key, int defaultValue) {
+    Optional<String> value = properties.apply(key).map(String::trim);
+    if (value.isEmpty()) {
+      return defaultValue;
+    }
+    try {
+      return Integer.parseInt(value.get());
+    } catch (NumberFormatException e) {
+      LOG.warn("Invalid value '{}' for property '{}', using default value {}.", value.get(), key, defaultValue);
+      return defaultValue;
+    }
+  }
+
+  private static WorkList.Strategy strategyProperty(Function<String, Optional<String>> properties, String key, WorkList.Strategy defaultValue) {
+    Optional<String> value = properties.apply(key).map(String::trim);
+    if (value.isEmpty()) {
+      return defaultValue;
+    }
+    try {
+      return WorkList.Strategy.valueOf(value.get().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      LOG.warn("Invalid value '{}' for property '{}', using default value {}.", value.get(), key, defaultValue);
+      return defaultValue;
+    }
+  }
+
+}
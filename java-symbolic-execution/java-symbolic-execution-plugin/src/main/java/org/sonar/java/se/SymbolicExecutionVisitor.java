@@ -18,17 +18,23 @@ package org.sonar.java.se;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.java.se.checks.SECheck;
 import org.sonar.java.se.xproc.BehaviorCache;
 import org.sonar.java.se.xproc.MethodBehavior;
+import org.sonar.plugins.java.api.InputFileScannerContext;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.MethodTree;
+import org.sonar.plugins.java.api.tree.Tree;
 
 public class SymbolicExecutionVisitor extends BaseTreeVisitor implements JavaFileScanner {
 
@@ -38,10 +44,29 @@ public class SymbolicExecutionVisitor extends BaseTreeVisitor implements JavaFil
   // VisibleForTesting
   public final BehaviorCache behaviorCache;
   private final ExplodedGraphWalker.ExplodedGraphWalkerFactory egwFactory;
+  private final SymbolicExecutionSettings settings;
+  private CallGraph callGraph = CallGraph.build(List.of());
+  private Deadline fileDeadline = Deadline.NONE;
+  private final SymbolicExecutionCache cache;
 
   public SymbolicExecutionVisitor(List<SECheck> seChecks) {
-    egwFactory = new ExplodedGraphWalker.ExplodedGraphWalkerFactory(seChecks);
+    this(seChecks, SymbolicExecutionSettings.DEFAULT);
+  }
+
+  public SymbolicExecutionVisitor(List<SECheck> seChecks, SymbolicExecutionSettings settings) {
+    egwFactory = new ExplodedGraphWalker.ExplodedGraphWalkerFactory(seChecks, settings);
     this.behaviorCache = new BehaviorCache();
+    this.settings = settings;
+    this.cache = new SymbolicExecutionCache(seChecks, settings);
+    seChecks.forEach(check -> check.setSymbolicExecutionCache(cache));
+  }
+
+  /**
+   * Files unchanged since the previous analysis, during which they have been explored, are skipped.
+   */
+  @Override
+  public boolean scanWithoutParsing(InputFileScannerContext inputFileScannerContext) {
+    return cache.isUpToDate(inputFileScannerContext);
   }
 
   @Override
@@ -49,7 +74,33 @@ public class SymbolicExecutionVisitor extends BaseTreeVisitor implements JavaFil
     behaviorCache.cleanup();
     behaviorCache.setFileContext(this);
     this.context = context;
-    scan(context.getTree());
+    fileDeadline = Deadline.after(settings.fileTimeout());
+    callGraph = CallGraph.build(MethodCollector.collect(context.getTree()));
+    if (settings.isParallel()) {
+      executeInParallel(callGraph.schedule());
+    } else {
+      scan(context.getTree());
+    }
+    cache.store(context);
+  }
+
+  /**
+   * Methods are explored independently from each other on a bounded pool, callees first. Behaviors of methods which can not be
+   * overridden are computed only once, by the first walker requiring them (see {@link BehaviorCache#startComputation}), and issues
+   * are sorted by SECheck before being reported, so that the result does not depend on the scheduling.
+   */
+  private void executeInParallel(List<MethodTree> methods) {
+    // the pool does not outlive the scan of the file: no worker thread is left behind when the visitor is not used anymore
+    ForkJoinPool forkJoinPool = new ForkJoinPool(settings.parallelism());
+    try {
+      List<ForkJoinTask<?>> tasks = new ArrayList<>(methods.size());
+      for (MethodTree method : methods) {
+        tasks.add(forkJoinPool.submit(() -> execute(method)));
+      }
+      tasks.forEach(ForkJoinTask::join);
+    } finally {
+      forkJoinPool.shutdownNow();
+    }
   }
 
   @Override
@@ -59,20 +110,38 @@ public class SymbolicExecutionVisitor extends BaseTreeVisitor implements JavaFil
   }
 
   public void execute(MethodTree methodTree) {
-    ExplodedGraphWalker walker = getWalker();
-    try {
-      Symbol.MethodSymbol methodSymbol = methodTree.symbol();
-      if (methodCanNotBeOverridden(methodSymbol)) {
-        MethodBehavior methodBehavior = behaviorCache.methodBehaviorForSymbol(methodSymbol);
-        if (!methodBehavior.isVisited()) {
-          walker.visitMethod(methodTree, methodBehavior);
+    // behaviors of the callees are computed first, so that walkers are not nested
+    for (MethodTree callee : callGraph.calleesFirst(methodTree)) {
+      explore(callee);
+    }
+    explore(methodTree);
+  }
+
+  private void explore(MethodTree methodTree) {
+    Symbol.MethodSymbol methodSymbol = methodTree.symbol();
+    if (methodCanNotBeOverridden(methodSymbol)) {
+      MethodBehavior methodBehavior = behaviorCache.startComputation(methodSymbol);
+      if (methodBehavior != null) {
+        try {
+          execute(methodTree, methodBehavior);
+        } finally {
+          behaviorCache.endComputation(methodBehavior);
         }
-      } else {
-        walker.visitMethod(methodTree);
       }
+    } else {
+      execute(methodTree, null);
+    }
+  }
+
+  private void execute(MethodTree methodTree, @Nullable MethodBehavior methodBehavior) {
+    ExplodedGraphWalker walker = getWalker();
+    walker.setFileDeadline(fileDeadline);
+    try {
+      walker.visitMethod(methodTree, methodBehavior);
     } catch (ExplodedGraphWalker.MaximumStepsReachedException
       | ExplodedGraphWalker.ExplodedGraphTooBigException
-      | ExplodedGraphWalker.MaximumStartingStatesException exception) {
+      | ExplodedGraphWalker.MaximumStartingStatesException
+      | ExplodedGraphWalker.TimeBudgetExceededException exception) {
       LOG.debug("Could not complete symbolic execution: {}", exception.getMessage());
       if (LOG.isTraceEnabled()) {
         StringWriter sw = new StringWriter();
@@ -98,4 +167,21 @@ public class SymbolicExecutionVisitor extends BaseTreeVisitor implements JavaFil
       (methodSymbol.isPrivate() || methodSymbol.isFinal() || methodSymbol.isStatic() || methodSymbol.owner().isFinal());
   }
 
+  private static class MethodCollector extends BaseTreeVisitor {
+
+    private final List<MethodTree> methods = new ArrayList<>();
+
+    static List<MethodTree> collect(Tree tree) {
+      MethodCollector collector = new MethodCollector();
+      tree.accept(collector);
+      return collector.methods;
+    }
+
+    @Override
+    public void visitMethod(MethodTree tree) {
+      methods.add(tree);
+      super.visitMethod(tree);
+    }
+  }
+
 }
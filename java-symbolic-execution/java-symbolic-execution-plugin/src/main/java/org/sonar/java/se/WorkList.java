@@ -0,0 +1,236 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import javax.annotation.CheckForNull;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph.Block;
+
+/**
+ * Nodes of the exploded graph waiting to be explored by the {@link ExplodedGraphWalker}.
+ * The order in which they are explored depends on the {@link Strategy}.
+ */
+public interface WorkList extends Iterable<ExplodedGraph.Node> {
+
+  enum Strategy {
+    /**
+     * Last enqueued node is explored first: a path is fully explored before switching to another one.
+     */
+    DFS,
+    /**
+     * First enqueued node is explored first.
+     */
+    BFS,
+    /**
+     * Nodes are explored following the reverse post-order of the blocks of the CFG: all the paths reaching a join point are
+     * explored before going further, so that identical states meet in the exploded graph as early as possible.
+     */
+    RPO
+  }
+
+  void push(ExplodedGraph.Node node);
+
+  /**
+   * Removes the next node to be explored.
+   */
+  ExplodedGraph.Node pop();
+
+  /**
+   * @return the next node to be explored, without removing it
+   */
+  @CheckForNull
+  ExplodedGraph.Node peek();
+
+  int size();
+
+  default boolean isEmpty() {
+    return size() == 0;
+  }
+
+  static WorkList create(Strategy strategy, ControlFlowGraph cfg) {
+    switch (strategy) {
+      case BFS:
+        return new BreadthFirst();
+      case RPO:
+        return new ReversePostOrder(cfg);
+      default:
+        return new DepthFirst();
+    }
+  }
+
+  class DepthFirst implements WorkList {
+    private final Deque<ExplodedGraph.Node> nodes = new ArrayDeque<>();
+
+    @Override
+    public void push(ExplodedGraph.Node node) {
+      nodes.addFirst(node);
+    }
+
+    @Override
+    public ExplodedGraph.Node pop() {
+      return nodes.removeFirst();
+    }
+
+    @Override
+    public ExplodedGraph.Node peek() {
+      return nodes.peekFirst();
+    }
+
+    @Override
+    public int size() {
+      return nodes.size();
+    }
+
+    @Override
+    public Iterator<ExplodedGraph.Node> iterator() {
+      return nodes.iterator();
+    }
+  }
+
+  class BreadthFirst implements WorkList {
+    private final Deque<ExplodedGraph.Node> nodes = new ArrayDeque<>();
+
+    @Override
+    public void push(ExplodedGraph.Node node) {
+      nodes.addLast(node);
+    }
+
+    @Override
+    public ExplodedGraph.Node pop() {
+      return nodes.removeFirst();
+    }
+
+    @Override
+    public ExplodedGraph.Node peek() {
+      return nodes.peekFirst();
+    }
+
+    @Override
+    public int size() {
+      return nodes.size();
+    }
+
+    @Override
+    public Iterator<ExplodedGraph.Node> iterator() {
+      return nodes.iterator();
+    }
+  }
+
+  class ReversePostOrder implements WorkList {
+
+    private final Map<Integer, Integer> orderByBlockId;
+    private final PriorityQueue<Entry> nodes;
+    private long sequence = 0;
+
+    ReversePostOrder(ControlFlowGraph cfg) {
+      orderByBlockId = reversePostOrder(cfg);
+      // blocks first, then elements within the block, and most recently enqueued node when reaching the same program point
+      nodes = new PriorityQueue<>(Comparator.<Entry>comparingInt(e -> order(e.node))
+        .thenComparingInt(e -> e.node.programPoint.i)
+        .thenComparing(Comparator.<Entry>comparingLong(e -> e.sequence).reversed()));
+    }
+
+    private static Map<Integer, Integer> reversePostOrder(ControlFlowGraph cfg) {
+      List<Block> postOrder = new ArrayList<>();
+      Set<Block> visited = new HashSet<>();
+      // iterative DFS, as CFG of large methods can be deep
+      Deque<Iterator<? extends Block>> stack = new ArrayDeque<>();
+      Deque<Block> path = new ArrayDeque<>();
+      Block entry = cfg.entryBlock();
+      visited.add(entry);
+      path.push(entry);
+      stack.push(successors(entry).iterator());
+      while (!stack.isEmpty()) {
+        Iterator<? extends Block> successors = stack.peek();
+        if (successors.hasNext()) {
+          Block successor = successors.next();
+          if (visited.add(successor)) {
+            path.push(successor);
+            stack.push(successors(successor).iterator());
+          }
+        } else {
+          stack.pop();
+          postOrder.add(path.pop());
+        }
+      }
+      Map<Integer, Integer> result = new HashMap<>();
+      for (int i = 0; i < postOrder.size(); i++) {
+        result.put(postOrder.get(i).id(), postOrder.size() - 1 - i);
+      }
+      return result;
+    }
+
+    private static List<Block> successors(Block block) {
+      List<Block> successors = new ArrayList<>(block.successors());
+      successors.addAll(block.exceptions());
+      return successors;
+    }
+
+    private int order(ExplodedGraph.Node node) {
+      // blocks which can not be reached from the entry block are explored last
+      return orderByBlockId.getOrDefault(node.programPoint.block.id(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void push(ExplodedGraph.Node node) {
+      nodes.add(new Entry(node, sequence));
+      sequence++;
+    }
+
+    @Override
+    public ExplodedGraph.Node pop() {
+      return nodes.remove().node;
+    }
+
+    @Override
+    public ExplodedGraph.Node peek() {
+      Entry next = nodes.peek();
+      return next == null ? null : next.node;
+    }
+
+    @Override
+    public int size() {
+      return nodes.size();
+    }
+
+    @Override
+    public Iterator<ExplodedGraph.Node> iterator() {
+      return nodes.stream().map(e -> e.node).iterator();
+    }
+
+    private static class Entry {
+      private final ExplodedGraph.Node node;
+      private final long sequence;
+
+      Entry(ExplodedGraph.Node node, long sequence) {
+        this.node = node;
+        this.sequence = sequence;
+      }
+    }
+  }
+}
@@ -31,9 +31,11 @@ import org.sonar.java.se.constraint.Constraint;
 import org.sonar.java.se.constraint.ConstraintManager;
 import org.sonar.java.se.symbolicvalues.SymbolicValue;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph;
 import org.sonar.plugins.java.api.semantic.MethodMatchers;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.MethodInvocationTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.NewClassTree;
 import org.sonar.plugins.java.api.tree.ReturnStatementTree;
 import org.sonar.plugins.java.api.tree.Tree;
@@ -84,11 +86,19 @@ public class CustomUnclosedResourcesCheck extends SECheck {
       + " E.G. \"org.assoc.res.MyResource#closeMe\" or \"org.assoc.res.MySpecialResource#closeMe(java.lang.String, int)\"")
   public String closingMethod = "";
 
-  private MethodMatchers classConstructor;
+  /**
+   * Built from the rule properties before the first exploration, and only published once complete: walkers exploring methods
+   * in parallel never see a partially built matcher.
+   */
+  @Nullable
+  private volatile ResourceMatchers matchers;
 
-  private MethodMatchers factoryList;
-  private MethodMatchers openingList;
-  private MethodMatchers closingList;
+  @Override
+  public void init(MethodTree methodTree, ControlFlowGraph cfg) {
+    if (matchers == null) {
+      matchers = new ResourceMatchers(constructor, factoryMethod, openingMethod, closingMethod);
+    }
+  }
 
   @Override
   public ProgramState checkPreStatement(CheckerContext context, Tree syntaxNode) {
@@ -145,6 +155,20 @@ public class CustomUnclosedResourcesCheck extends SECheck {
     }
   }
 
+  private static final class ResourceMatchers {
+    private final MethodMatchers classConstructor;
+    private final MethodMatchers factoryList;
+    private final MethodMatchers openingList;
+    private final MethodMatchers closingList;
+
+    ResourceMatchers(String constructor, String factoryMethod, String openingMethod, String closingMethod) {
+      classConstructor = constructor.length() > 0 ? SEMethodMatcherFactory.constructorMatcher(constructor) : MethodMatchers.none();
+      factoryList = createMethodMatchers(factoryMethod);
+      openingList = createMethodMatchers(openingMethod);
+      closingList = createMethodMatchers(closingMethod);
+    }
+  }
+
   private abstract class AbstractStatementVisitor extends CheckerTreeNodeVisitor {
 
     protected AbstractStatementVisitor(ProgramState programState) {
@@ -165,14 +189,7 @@ public class CustomUnclosedResourcesCheck extends SECheck {
     }
 
     protected boolean isClosingResource(MethodInvocationTree mit) {
-      return closingMethods().matches(mit);
-    }
-
-    private MethodMatchers closingMethods() {
-      if (closingList == null) {
-        closingList = createMethodMatchers(closingMethod);
-      }
-      return closingList;
+      return matchers.closingList.matches(mit);
     }
   }
   private class PreStatementVisitor extends AbstractStatementVisitor {
@@ -202,7 +219,7 @@ public class CustomUnclosedResourcesCheck extends SECheck {
     }
 
     private boolean isOpeningResource(MethodInvocationTree syntaxNode) {
-      return openingMethods().matches(syntaxNode);
+      return matchers.openingList.matches(syntaxNode);
     }
 
     @Override
@@ -212,13 +229,6 @@ public class CustomUnclosedResourcesCheck extends SECheck {
         closeResource(programState.peekValue());
       }
     }
-
-    private MethodMatchers openingMethods() {
-      if (openingList == null) {
-        openingList = createMethodMatchers(openingMethod);
-      }
-      return openingList;
-    }
   }
   private class PostStatementVisitor extends AbstractStatementVisitor {
 
@@ -241,28 +251,11 @@ public class CustomUnclosedResourcesCheck extends SECheck {
     }
 
     private boolean isCreatingResource(NewClassTree newClassTree) {
-      return constructorClasses().matches(newClassTree);
-    }
-
-    private MethodMatchers constructorClasses() {
-      if (classConstructor == null) {
-        classConstructor = MethodMatchers.none();
-        if (constructor.length() > 0) {
-          classConstructor = SEMethodMatcherFactory.constructorMatcher(constructor);
-        }
-      }
-      return classConstructor;
+      return matchers.classConstructor.matches(newClassTree);
     }
 
     private boolean isCreatingResource(MethodInvocationTree mit) {
-      return factoryMethods().matches(mit);
-    }
-
-    private MethodMatchers factoryMethods() {
-      if (factoryList == null) {
-        factoryList = createMethodMatchers(factoryMethod);
-      }
-      return factoryList;
+      return matchers.factoryList.matches(mit);
     }
 
   }
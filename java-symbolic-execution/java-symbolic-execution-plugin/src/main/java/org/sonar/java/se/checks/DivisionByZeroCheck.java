@@ -76,7 +76,8 @@ public class DivisionByZeroCheck extends SECheck {
   private static final MethodMatchers KEEPING_CONSTRAINTS_WITH_ONE_PARAM = BIG_INTEGER_AND_DECIMAL
     .names("pow", "round", "shiftRight", "shiftLeft").addParametersMatcher(MethodMatchers.ANY).build();
 
-  private final Map<String, Boolean> zeroValuesCache = new HashMap<>();
+  // one per thread as methods can be explored in parallel
+  private final ThreadLocal<Map<String, Boolean>> zeroValuesCache = ThreadLocal.withInitial(HashMap::new);
 
   public enum ZeroConstraint implements Constraint {
     ZERO,
@@ -141,7 +142,7 @@ public class DivisionByZeroCheck extends SECheck {
 
   @Override
   public void init(MethodTree methodTree, ControlFlowGraph cfg) {
-    zeroValuesCache.clear();
+    zeroValuesCache.get().clear();
   }
 
   @Override
@@ -365,7 +366,7 @@ public class DivisionByZeroCheck extends SECheck {
 
   @Override
   public ProgramState checkPostStatement(CheckerContext context, Tree syntaxNode) {
-    PostStatementVisitor visitor = new PostStatementVisitor(context, zeroValuesCache);
+    PostStatementVisitor visitor = new PostStatementVisitor(context, zeroValuesCache.get());
     syntaxNode.accept(visitor);
     return visitor.programState;
   }
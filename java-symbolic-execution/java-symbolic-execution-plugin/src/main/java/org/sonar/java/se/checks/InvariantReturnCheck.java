@@ -82,20 +82,20 @@ public class InvariantReturnCheck extends SECheck {
     }
   }
 
-  private Deque<MethodInvariantContext> methodInvariantContexts = new LinkedList<>();
+  // one stack of explored methods per thread, as methods can be explored in parallel
+  private final ThreadLocal<Deque<MethodInvariantContext>> methodInvariantContexts = ThreadLocal.withInitial(LinkedList::new);
 
   @Override
   public void init(MethodTree methodTree, ControlFlowGraph cfg) {
-    methodInvariantContexts.push(new MethodInvariantContext(methodTree));
+    methodInvariantContexts.get().push(new MethodInvariantContext(methodTree));
   }
 
   @Override
   public void scanFile(JavaFileScannerContext context) {
-    for (SEIssue seIssue : issues) {
+    for (SEIssue seIssue : drainIssues()) {
       context.reportIssueWithFlow(this, seIssue.getTree(), seIssue.getMessage(), seIssue.getFlows(), seIssue.getFlows().iterator().next().size());
     }
-    issues.clear();
-    methodInvariantContexts.clear();
+    methodInvariantContexts.get().clear();
   }
 
   @Override
@@ -103,7 +103,7 @@ public class InvariantReturnCheck extends SECheck {
     if (context.getState().exitingOnRuntimeException()) {
       return;
     }
-    MethodInvariantContext methodInvariantContext = methodInvariantContexts.peek();
+    MethodInvariantContext methodInvariantContext = methodInvariantContexts.get().peek();
     if (!methodInvariantContext.methodToCheck) {
       return;
     }
@@ -131,11 +131,11 @@ public class InvariantReturnCheck extends SECheck {
   @Override
   public void interruptedExecution(CheckerContext context) {
     // pop but do nothing with it : can't report on incomplete execution
-    methodInvariantContexts.pop();
+    methodInvariantContexts.get().pop();
   }
 
   private void reportIssues() {
-    MethodInvariantContext methodInvariantContext = methodInvariantContexts.pop();
+    MethodInvariantContext methodInvariantContext = methodInvariantContexts.get().pop();
     if (!methodInvariantContext.methodToCheck) {
       return;
     }
@@ -68,8 +68,8 @@ public class LocksNotUnlockedCheck extends SECheck {
     }
 
     @Override
-    public boolean references(SymbolicValue other) {
-      return operand.equals(other) || operand.references(other);
+    public List<SymbolicValue> referencedValues() {
+      return Collections.singletonList(operand);
     }
 
     @Override
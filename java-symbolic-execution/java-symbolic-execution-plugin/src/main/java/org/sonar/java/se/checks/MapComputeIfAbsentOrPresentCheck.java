@@ -61,10 +61,11 @@ public class MapComputeIfAbsentOrPresentCheck extends SECheck implements JavaVer
   private static final MethodMatchers MAP_PUT = JAVA_UTIL_MAP.names("put").addParametersMatcher(ANY, ANY).build();
   private static final MethodMatchers MAP_CONTAINS_KEY = JAVA_UTIL_MAP.names("containsKey").addParametersMatcher(ANY).build();
 
-  private final Map<SymbolicValue, List<MapMethodInvocation>> mapGetInvocations = new HashMap<>();
-  private final Map<SymbolicValue, List<MapMethodInvocation>> mapContainsKeyInvocations = new HashMap<>();
-  private final List<CheckIssue> checkIssues = new ArrayList<>();
-  private final Map<Tree, IfStatementTree> closestIfStatements = new HashMap<>();
+  // state of the explored method, one per thread as methods can be explored in parallel
+  private final ThreadLocal<Map<SymbolicValue, List<MapMethodInvocation>>> mapGetInvocations = ThreadLocal.withInitial(HashMap::new);
+  private final ThreadLocal<Map<SymbolicValue, List<MapMethodInvocation>>> mapContainsKeyInvocations = ThreadLocal.withInitial(HashMap::new);
+  private final ThreadLocal<List<CheckIssue>> checkIssues = ThreadLocal.withInitial(ArrayList::new);
+  private final ThreadLocal<Map<Tree, IfStatementTree>> closestIfStatements = ThreadLocal.withInitial(HashMap::new);
 
   @Override
   public boolean isCompatibleWithJavaVersion(JavaVersion version) {
@@ -73,10 +74,10 @@ public class MapComputeIfAbsentOrPresentCheck extends SECheck implements JavaVer
 
   @Override
   public void init(MethodTree methodTree, ControlFlowGraph cfg) {
-    mapContainsKeyInvocations.clear();
-    mapGetInvocations.clear();
-    checkIssues.clear();
-    closestIfStatements.clear();
+    mapContainsKeyInvocations.get().clear();
+    mapGetInvocations.get().clear();
+    checkIssues.get().clear();
+    closestIfStatements.get().clear();
   }
 
   @Override
@@ -84,9 +85,9 @@ public class MapComputeIfAbsentOrPresentCheck extends SECheck implements JavaVer
     if (syntaxNode.is(Tree.Kind.METHOD_INVOCATION)) {
       MethodInvocationTree mit = (MethodInvocationTree) syntaxNode;
       if (MAP_GET.matches(mit)) {
-        addMapMethodInvocation(context, mit, mapGetInvocations);
+        addMapMethodInvocation(context, mit, mapGetInvocations.get());
       } else if (MAP_CONTAINS_KEY.matches(mit)) {
-        addMapMethodInvocation(context, mit, mapContainsKeyInvocations);
+        addMapMethodInvocation(context, mit, mapContainsKeyInvocations.get());
       }
     }
     return super.checkPostStatement(context, syntaxNode);
@@ -124,19 +125,19 @@ public class MapComputeIfAbsentOrPresentCheck extends SECheck implements JavaVer
     SymbolicValue keySV = ps.peekValue(1);
     SymbolicValue mapSV = ps.peekValue(2);
 
-    sameMapAndSameKeyInvocation(keySV, mapSV, mapGetInvocations)
+    sameMapAndSameKeyInvocation(keySV, mapSV, mapGetInvocations.get())
       .ifPresent(getOnSameMap -> {
         ObjectConstraint constraint = ps.getConstraint(getOnSameMap.value, ObjectConstraint.class);
         if (constraint != null && isInsideIfStatementWithNullCheckWithoutElse(mit)) {
-          checkIssues.add(new GetMethodCheckIssue(context.getNode(), getOnSameMap.mit, mit, getOnSameMap.value, constraint));
+          checkIssues.get().add(new GetMethodCheckIssue(context.getNode(), getOnSameMap.mit, mit, getOnSameMap.value, constraint));
         }
       });
 
-    sameMapAndSameKeyInvocation(keySV, mapSV, mapContainsKeyInvocations)
+    sameMapAndSameKeyInvocation(keySV, mapSV, mapContainsKeyInvocations.get())
       .ifPresent(containsKeyOnSameMap -> {
         BooleanConstraint constraint = ps.getConstraint(containsKeyOnSameMap.value, BooleanConstraint.class);
         if (constraint != null && isInsideIfStatementWithoutElse(mit)) {
-          checkIssues.add(new ContainsKeyMethodCheckIssue(context.getNode(), containsKeyOnSameMap.mit, mit, containsKeyOnSameMap.value, constraint));
+          checkIssues.get().add(new ContainsKeyMethodCheckIssue(context.getNode(), containsKeyOnSameMap.mit, mit, containsKeyOnSameMap.value, constraint));
         }
       });
   }
@@ -171,7 +172,7 @@ public class MapComputeIfAbsentOrPresentCheck extends SECheck implements JavaVer
   }
 
   private Optional<IfStatementTree> getIfStatementParent(MethodInvocationTree mit) {
-    IfStatementTree closestKnownParent = closestIfStatements.get(mit);
+    IfStatementTree closestKnownParent = closestIfStatements.get().get(mit);
     if (closestKnownParent == null) {
       List<Tree> children = new ArrayList<>();
       children.add(mit);
@@ -184,12 +185,12 @@ public class MapComputeIfAbsentOrPresentCheck extends SECheck implements JavaVer
     while (currentTree != null) {
       if (currentTree.is(Tree.Kind.IF_STATEMENT)) {
         IfStatementTree ifStatementTree = (IfStatementTree) currentTree;
-        children.forEach(tree -> closestIfStatements.put(tree, ifStatementTree));
+        children.forEach(tree -> closestIfStatements.get().put(tree, ifStatementTree));
         return Optional.of(ifStatementTree);
       }
-      IfStatementTree ifStatementTree = closestIfStatements.get(currentTree);
+      IfStatementTree ifStatementTree = closestIfStatements.get().get(currentTree);
       if (ifStatementTree != null) {
-        children.forEach(tree -> closestIfStatements.put(tree, ifStatementTree));
+        children.forEach(tree -> closestIfStatements.get().put(tree, ifStatementTree));
         return Optional.of(ifStatementTree);
       }
       children.add(currentTree);
@@ -211,7 +212,8 @@ public class MapComputeIfAbsentOrPresentCheck extends SECheck implements JavaVer
   @Override
   public void checkEndOfExecution(CheckerContext context) {
     SECheck check = this;
-    checkIssues.stream().filter(checkIssue -> checkIssue.isOnlyPossibleIssueForReportTree(checkIssues)).forEach(issue -> issue.report(context, check));
+    List<CheckIssue> methodCheckIssues = checkIssues.get();
+    methodCheckIssues.stream().filter(checkIssue -> checkIssue.isOnlyPossibleIssueForReportTree(methodCheckIssues)).forEach(issue -> issue.report(context, check));
   }
 
   private abstract static class CheckIssue {
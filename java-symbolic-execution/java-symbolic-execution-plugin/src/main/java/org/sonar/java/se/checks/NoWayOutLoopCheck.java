@@ -55,23 +55,24 @@ public class NoWayOutLoopCheck extends SECheck {
     INCREMENT, DECREMENT, INDETERMINATE
   }
 
-  private final Deque<MethodContext> contexts = new LinkedList<>();
+  // one stack of explored methods per thread, as methods can be explored in parallel
+  private final ThreadLocal<Deque<MethodContext>> contexts = ThreadLocal.withInitial(LinkedList::new);
 
   @Override
   public void scanFile(JavaFileScannerContext context) {
     super.scanFile(context);
-    contexts.clear();
+    contexts.get().clear();
   }
 
   @Override
   public void init(MethodTree tree, ControlFlowGraph cfg) {
     MethodContext context = new MethodContext(tree, cfg);
-    contexts.push(context);
+    contexts.get().push(context);
   }
 
   @Override
   public ProgramState checkPreStatement(CheckerContext context, Tree syntaxNode) {
-    if (contexts.peek().isThreadRunMethod()) {
+    if (contexts.get().peek().isThreadRunMethod()) {
       // It is OK to have an endless Thread run method
       return context.getState();
     }
@@ -88,11 +89,11 @@ public class NoWayOutLoopCheck extends SECheck {
         checkLoopWithAlwaysTrueCondition(context, statementParent);
       }
     });
-    contexts.pop();
+    contexts.get().pop();
   }
 
   private void checkLoopWithAlwaysTrueCondition(CheckerContext context, Tree statementParent) {
-    CFGLoop loopBlocks = contexts.peek().getLoop(statementParent);
+    CFGLoop loopBlocks = contexts.get().peek().getLoop(statementParent);
     if (loopBlocks != null && loopBlocks.hasNoWayOut()) {
       context.reportIssue(statementParent, NoWayOutLoopCheck.this, "Add an end condition to this loop.");
     }
@@ -100,7 +101,7 @@ public class NoWayOutLoopCheck extends SECheck {
 
   @Override
   public void interruptedExecution(CheckerContext context) {
-    contexts.pop();
+    contexts.get().pop();
   }
 
   private class PreStatementVisitor extends CheckerTreeNodeVisitor {
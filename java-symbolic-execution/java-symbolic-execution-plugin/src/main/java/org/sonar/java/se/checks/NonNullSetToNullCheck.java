@@ -67,27 +67,28 @@ public class NonNullSetToNullCheck extends SECheck {
     "jakarta.persistence.MappedSuperclass"
   };
 
-  private Deque<MethodTree> methodTrees = new ArrayDeque<>();
+  // one stack of explored methods per thread, as methods can be explored in parallel
+  private final ThreadLocal<Deque<MethodTree>> methodTrees = ThreadLocal.withInitial(ArrayDeque::new);
 
   @Override
   public void scanFile(JavaFileScannerContext context) {
     super.scanFile(context);
-    methodTrees.clear();
+    methodTrees.get().clear();
   }
 
   @Override
   public void init(MethodTree tree, ControlFlowGraph cfg) {
-    methodTrees.push(tree);
+    methodTrees.get().push(tree);
   }
 
   @Override
   public void checkEndOfExecution(CheckerContext context) {
-    methodTrees.pop();
+    methodTrees.get().pop();
   }
 
   @Override
   public void interruptedExecution(CheckerContext context) {
-    methodTrees.pop();
+    methodTrees.get().pop();
   }
 
   @Override
@@ -106,7 +107,7 @@ public class NonNullSetToNullCheck extends SECheck {
 
   @Override
   public void checkEndOfExecutionPath(CheckerContext context, ConstraintManager constraintManager) {
-    MethodTree methodTree = methodTrees.peek();
+    MethodTree methodTree = methodTrees.get().peek();
     if (methodTree.is(Tree.Kind.CONSTRUCTOR)
       && !isDefaultConstructorForJpa(methodTree)
       && !callsThisConstructor(methodTree)
@@ -93,17 +93,18 @@ public class NullDereferenceCheck extends SECheck {
     }
   }
 
-  private Deque<Set<NullDereferenceIssue>> detectedIssues = new ArrayDeque<>();
+  // one stack of explored methods per thread, as methods can be explored in parallel
+  private final ThreadLocal<Deque<Set<NullDereferenceIssue>>> detectedIssues = ThreadLocal.withInitial(ArrayDeque::new);
 
   @Override
   public void scanFile(JavaFileScannerContext context) {
     super.scanFile(context);
-    detectedIssues.clear();
+    detectedIssues.get().clear();
   }
 
   @Override
   public void init(MethodTree methodTree, ControlFlowGraph cfg) {
-    detectedIssues.push(new HashSet<>());
+    detectedIssues.get().push(new HashSet<>());
   }
 
   @Override
@@ -301,7 +302,7 @@ public class NullDereferenceCheck extends SECheck {
     ObjectConstraint constraint = programState.getConstraint(currentVal, ObjectConstraint.class);
     if (constraint != null && constraint.isNull()) {
       NullDereferenceIssue issue = new NullDereferenceIssue(context.getNode(), currentVal, syntaxNode);
-      detectedIssues.peek().add(issue);
+      detectedIssues.get().peek().add(issue);
 
       // we reported the issue and stopped the exploration, but we still need to create a yield for x-procedural calls
       context.addExceptionalYield(currentVal, programState, JAVA_LANG_NPE, this);
@@ -389,7 +390,7 @@ public class NullDereferenceCheck extends SECheck {
     }
 
     if (issue != null) {
-      detectedIssues.peek().add(issue);
+      detectedIssues.get().peek().add(issue);
       context.createSink();
       return context.getState();
     }
@@ -430,7 +431,7 @@ public class NullDereferenceCheck extends SECheck {
   }
 
   private void reportIssues() {
-    Set<NullDereferenceIssue> issues = detectedIssues.pop();
+    Set<NullDereferenceIssue> issues = detectedIssues.get().pop();
     issues.forEach(issue -> reportIssue(issue.symbolicValue, issue.tree, issue.node));
   }
 }
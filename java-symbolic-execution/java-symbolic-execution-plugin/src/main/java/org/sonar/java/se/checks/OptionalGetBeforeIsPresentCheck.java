@@ -114,8 +114,8 @@ public class OptionalGetBeforeIsPresentCheck extends SECheck {
     }
 
     @Override
-    public boolean references(SymbolicValue other) {
-      return wrappedValue.equals(other) || wrappedValue.references(other);
+    public List<SymbolicValue> referencedValues() {
+      return Collections.singletonList(wrappedValue);
     }
   }
 
@@ -183,8 +183,8 @@ public class OptionalGetBeforeIsPresentCheck extends SECheck {
     }
 
     @Override
-    public boolean references(SymbolicValue other) {
-      return optionalSV.equals(other) || optionalSV.references(other);
+    public List<SymbolicValue> referencedValues() {
+      return Collections.singletonList(optionalSV);
     }
   }
 
@@ -52,17 +52,18 @@ public class RedundantAssignmentsCheck extends SECheck {
     "java.util.stream.IntStream",
     "java.util.stream.LongStream",
     "java.util.stream.DoubleStream");
-  private final Deque<Map<AssignmentExpressionTree, List<AssignmentDataHolder>>> assignmentsByMethod = new LinkedList<>();
+  // one stack of explored methods per thread, as methods can be explored in parallel
+  private final ThreadLocal<Deque<Map<AssignmentExpressionTree, List<AssignmentDataHolder>>>> assignmentsByMethod = ThreadLocal.withInitial(LinkedList::new);
 
   @Override
   public void scanFile(JavaFileScannerContext context) {
-    assignmentsByMethod.clear();
+    assignmentsByMethod.get().clear();
     super.scanFile(context);
   }
 
   @Override
   public void init(MethodTree methodTree, ControlFlowGraph cfg) {
-    assignmentsByMethod.push(new HashMap<>());
+    assignmentsByMethod.get().push(new HashMap<>());
   }
 
   @Override
@@ -87,18 +88,18 @@ public class RedundantAssignmentsCheck extends SECheck {
     SymbolicValue oldValue = previousState.getValue(assignedSymbol);
     SymbolicValue newValue = assignedVariable.symbolicValue();
     Symbol fromSymbol = previousState.peekValueSymbol().symbol();
-    assignmentsByMethod.peek().computeIfAbsent(assignmentExpressionTree,
+    assignmentsByMethod.get().peek().computeIfAbsent(assignmentExpressionTree,
       k -> new ArrayList<>()).add(new AssignmentDataHolder(assignedSymbol, oldValue, newValue, fromSymbol, node));
   }
 
   @Override
   public void interruptedExecution(CheckerContext context) {
-    this.assignmentsByMethod.pop();
+    this.assignmentsByMethod.get().pop();
   }
 
   @Override
   public void checkEndOfExecution(CheckerContext context) {
-    for (Map.Entry<AssignmentExpressionTree, List<AssignmentDataHolder>> assignmentForTree : assignmentsByMethod.pop().entrySet()) {
+    for (Map.Entry<AssignmentExpressionTree, List<AssignmentDataHolder>> assignmentForTree : assignmentsByMethod.get().pop().entrySet()) {
       Collection<AssignmentDataHolder> allAssignments = assignmentForTree.getValue();
       if (allAssignments.stream().allMatch(AssignmentDataHolder::isRedundant)) {
         Set<Flow> flows = allAssignments.stream().map(AssignmentDataHolder::flows).flatMap(Set::stream).collect(Collectors.toSet());
@@ -16,24 +16,36 @@
  */
 package org.sonar.java.se.checks;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.sonar.java.se.CheckerContext;
 import org.sonar.java.se.Flow;
 import org.sonar.java.se.ProgramState;
+import org.sonar.java.se.SymbolicExecutionCache;
 import org.sonar.java.se.constraint.ConstraintManager;
+import org.sonar.plugins.java.api.InputFileScannerContext;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.java.api.location.Position;
 import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.Tree;
 
 public abstract class SECheck implements JavaFileScanner {
 
+  private static final Comparator<SEIssue> ISSUE_ORDER = Comparator
+    .comparing((SEIssue seIssue) -> Position.startOf(seIssue.getTree().firstToken()))
+    .thenComparing(SEIssue::getMessage);
+
   protected Set<SEIssue> issues = new HashSet<>();
+  @Nullable
+  private SymbolicExecutionCache symbolicExecutionCache;
 
   public void init(MethodTree methodTree, ControlFlowGraph cfg) {
 
@@ -55,19 +67,44 @@ public abstract class SECheck implements JavaFileScanner {
     // By default do nothing
   }
 
+  /**
+   * Issues are raised by the {@link org.sonar.java.se.SymbolicExecutionVisitor} using this check: when it skips an unchanged file,
+   * so does the check.
+   */
+  public void setSymbolicExecutionCache(SymbolicExecutionCache symbolicExecutionCache) {
+    this.symbolicExecutionCache = symbolicExecutionCache;
+  }
+
+  @Override
+  public boolean scanWithoutParsing(InputFileScannerContext inputFileScannerContext) {
+    return symbolicExecutionCache != null && symbolicExecutionCache.isUpToDate(inputFileScannerContext);
+  }
+
   @Override
   public void scanFile(JavaFileScannerContext context) {
-    for (SEIssue seIssue : issues) {
+    for (SEIssue seIssue : drainIssues()) {
       context.reportIssueWithFlow(this, seIssue.getTree(), seIssue.getMessage(), seIssue.getFlows(), null);
     }
+  }
+
+  /**
+   * Issues can be raised concurrently by walkers exploring methods in parallel: they are returned ordered by location,
+   * so that the reporting does not depend on the order in which methods have been explored.
+   *
+   * @return the issues raised so far, which are then forgotten.
+   */
+  protected synchronized List<SEIssue> drainIssues() {
+    List<SEIssue> result = new ArrayList<>(issues);
+    result.sort(ISSUE_ORDER);
     issues.clear();
+    return result;
   }
 
   public void reportIssue(Tree tree, String message) {
     reportIssue(tree, message, Collections.emptySet());
   }
 
-  public void reportIssue(Tree tree, String message, Set<Flow> flows) {
+  public synchronized void reportIssue(Tree tree, String message, Set<Flow> flows) {
     issues.add(issues.stream()
       .filter(seIssue -> seIssue.tree.equals(tree))
       .findFirst()
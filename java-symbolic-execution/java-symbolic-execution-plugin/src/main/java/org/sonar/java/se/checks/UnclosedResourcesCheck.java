@@ -16,13 +16,14 @@
  */
 package org.sonar.java.se.checks;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
@@ -86,11 +87,16 @@ public class UnclosedResourcesCheck extends SECheck {
     description = "Comma separated list of the excluded resource types, using fully qualified names (example: \"org.apache.hadoop.fs.FileSystem\")",
     defaultValue = "")
   public String excludedTypes = "";
-  private final List<String> excludedTypesList = new ArrayList<>();
+  /**
+   * Parsed from {@link #excludedTypes} before each exploration, and only replaced as a whole: walkers exploring methods in
+   * parallel never see a partially built list.
+   */
+  private volatile List<String> excludedTypesList = Collections.emptyList();
 
-  private final Set<TryStatementTree> visitedTryWithResourcesTrees = new HashSet<>();
-  private final Set<Tree> knownResources = new HashSet<>();
-  private Type visitedMethodOwnerType;
+  private final Set<TryStatementTree> visitedTryWithResourcesTrees = ConcurrentHashMap.newKeySet();
+  private final Set<Tree> knownResources = ConcurrentHashMap.newKeySet();
+  // one per thread, as methods can be explored in parallel
+  private final ThreadLocal<Type> visitedMethodOwnerType = new ThreadLocal<>();
 
   private static final Pattern METHOD_NAMES_OPENING_RESOURCES = Pattern.compile("(new|create|open).*");
 
@@ -169,7 +175,8 @@ public class UnclosedResourcesCheck extends SECheck {
 
   @Override
   public void init(MethodTree methodTree, ControlFlowGraph cfg) {
-    this.visitedMethodOwnerType = methodTree.symbol().owner().type();
+    this.visitedMethodOwnerType.set(methodTree.symbol().owner().type());
+    this.excludedTypesList = parseExcludedTypes(excludedTypes);
   }
 
   @Override
@@ -284,16 +291,14 @@ public class UnclosedResourcesCheck extends SECheck {
   }
 
   private boolean excludedByRuleOption(Type type) {
-    return loadExcludedTypesList().stream().anyMatch(type::is);
+    return excludedTypesList.stream().anyMatch(type::is);
   }
 
-  private List<String> loadExcludedTypesList() {
-    if (excludedTypesList.isEmpty() && !StringUtils.isBlank(excludedTypes)) {
-      for (String excludedType : excludedTypes.split(",")) {
-        excludedTypesList.add(excludedType.trim());
-      }
+  private static List<String> parseExcludedTypes(String excludedTypes) {
+    if (StringUtils.isBlank(excludedTypes)) {
+      return Collections.emptyList();
     }
-    return excludedTypesList;
+    return Arrays.stream(excludedTypes.split(",")).map(String::trim).toList();
   }
 
   private static boolean isCloseable(ExpressionTree expr) {
@@ -535,8 +540,8 @@ public class UnclosedResourcesCheck extends SECheck {
       // "Implementations do not need to concern themselves with SQLExceptions that may be thrown from operations
       // they attempt. The JdbcTemplate class will catch and handle SQLExceptions appropriately."
       return JDBC_RESOURCE_CREATIONS.matches(mit)
-        && (visitedMethodOwnerType.isSubtypeOf("org.springframework.jdbc.core.PreparedStatementCreator")
-          || visitedMethodOwnerType.isSubtypeOf("org.springframework.jdbc.core.CallableStatementCreator"));
+        && (visitedMethodOwnerType.get().isSubtypeOf("org.springframework.jdbc.core.PreparedStatementCreator")
+          || visitedMethodOwnerType.get().isSubtypeOf("org.springframework.jdbc.core.CallableStatementCreator"));
     }
 
     private boolean mitHeuristics(MethodInvocationTree mit) {
@@ -547,7 +552,7 @@ public class UnclosedResourcesCheck extends SECheck {
     }
 
     private boolean invocationOfMethodFromOtherClass(Symbol methodSymbol) {
-      return !visitedMethodOwnerType.symbol().equals(methodSymbol.owner());
+      return !visitedMethodOwnerType.get().symbol().equals(methodSymbol.owner());
     }
   }
 }
@@ -0,0 +1,50 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se.constraint;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of the constraint domains, giving each of them a small slot number the first time it is used.
+ * Domains are declared by the checks as well as by the engine, so they cannot be enumerated upfront.
+ */
+final class ConstraintDomains {
+
+  private static final AtomicInteger NEXT_SLOT = new AtomicInteger();
+
+  private static final ClassValue<Integer> SLOTS = new ClassValue<>() {
+    @Override
+    protected Integer computeValue(Class<?> domain) {
+      return NEXT_SLOT.getAndIncrement();
+    }
+  };
+
+  private ConstraintDomains() {
+  }
+
+  static int slot(Class<? extends Constraint> domain) {
+    return SLOTS.get(domain);
+  }
+
+  /**
+   * @return the bit of the domain in a mask of domains. It is only guaranteed to be specific to the domain for the first 64 domains
+   * registered, which is more than are declared in practice: it must be confirmed by comparing the domains.
+   */
+  static long bit(Class<? extends Constraint> domain) {
+    return 1L << slot(domain);
+  }
+}
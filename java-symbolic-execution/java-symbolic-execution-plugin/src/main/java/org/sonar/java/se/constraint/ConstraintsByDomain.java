@@ -16,21 +16,29 @@
  */
 package org.sonar.java.se.constraint;
 
+import java.util.Arrays;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nullable;
-import org.sonarsource.analyzer.commons.collections.PCollections;
-import org.sonarsource.analyzer.commons.collections.PMap;
 
+/**
+ * Constraints of a symbolic value, at most one per domain. They are stored in an array ordered by the slot of their domain
+ * (see {@link ConstraintDomains}), with the mask of the bits of their domains: looking up a missing domain is a single bit test.
+ */
 public class ConstraintsByDomain {
 
-  private final PMap<Class<? extends Constraint>, Constraint> constraintPMap;
+  private static final Constraint[] NO_CONSTRAINTS = new Constraint[0];
+  private static final ConstraintsByDomain EMPTY = new ConstraintsByDomain(0L, NO_CONSTRAINTS);
 
-  private static final ConstraintsByDomain EMPTY = new ConstraintsByDomain(PCollections.emptyMap());
+  private final long domainMask;
+  private final Constraint[] constraints;
+  private final int hashCode;
 
-  private ConstraintsByDomain(PMap<Class<? extends Constraint>, Constraint> constraintPMap) {
-    this.constraintPMap = constraintPMap;
+  private ConstraintsByDomain(long domainMask, Constraint[] constraints) {
+    this.domainMask = domainMask;
+    this.constraints = constraints;
+    this.hashCode = Arrays.hashCode(constraints);
   }
 
   public static ConstraintsByDomain empty() {
@@ -38,45 +46,88 @@ public class ConstraintsByDomain {
   }
 
   public ConstraintsByDomain remove(Class<? extends Constraint> domain) {
-    PMap<Class<? extends Constraint>, Constraint> remove = constraintPMap.remove(domain);
-    if (remove == constraintPMap) {
+    int index = indexOf(domain);
+    if (index < 0) {
       return this;
     }
-    return remove.isEmpty() ? EMPTY : new ConstraintsByDomain(remove);
+    if (constraints.length == 1) {
+      return EMPTY;
+    }
+    Constraint[] newConstraints = new Constraint[constraints.length - 1];
+    System.arraycopy(constraints, 0, newConstraints, 0, index);
+    System.arraycopy(constraints, index + 1, newConstraints, index, newConstraints.length - index);
+    return new ConstraintsByDomain(mask(newConstraints), newConstraints);
   }
 
   @Nullable
   public Constraint get(Class<? extends Constraint> domain) {
-    return constraintPMap.get(domain);
+    int index = indexOf(domain);
+    return index < 0 ? null : constraints[index];
   }
 
   public boolean hasConstraint(Constraint constraint) {
-    return constraint.equals(constraintPMap.get(constraint.getClass()));
+    return constraint.equals(get(constraint.getClass()));
   }
 
   public void forEach(BiConsumer<Class<? extends Constraint>, Constraint> action) {
-    constraintPMap.forEach(action);
+    for (Constraint constraint : constraints) {
+      action.accept(constraint.getClass(), constraint);
+    }
   }
 
   public boolean isEmpty() {
-    return constraintPMap.isEmpty();
+    return constraints.length == 0;
   }
 
   public ConstraintsByDomain put(Constraint constraint) {
-    PMap<Class<? extends Constraint>, Constraint> newConstraints = constraintPMap.put(constraint.getClass(), constraint);
-    return newConstraints == constraintPMap ? this : new ConstraintsByDomain(newConstraints);
+    Class<? extends Constraint> domain = constraint.getClass();
+    int index = indexOf(domain);
+    if (index >= 0) {
+      if (constraints[index].equals(constraint)) {
+        return this;
+      }
+      Constraint[] newConstraints = constraints.clone();
+      newConstraints[index] = constraint;
+      return new ConstraintsByDomain(domainMask, newConstraints);
+    }
+    int slot = ConstraintDomains.slot(domain);
+    int insertionIndex = 0;
+    while (insertionIndex < constraints.length && ConstraintDomains.slot(constraints[insertionIndex].getClass()) < slot) {
+      insertionIndex++;
+    }
+    Constraint[] newConstraints = new Constraint[constraints.length + 1];
+    System.arraycopy(constraints, 0, newConstraints, 0, insertionIndex);
+    newConstraints[insertionIndex] = constraint;
+    System.arraycopy(constraints, insertionIndex, newConstraints, insertionIndex + 1, constraints.length - insertionIndex);
+    return new ConstraintsByDomain(domainMask | ConstraintDomains.bit(domain), newConstraints);
   }
 
   public Stream<Constraint> stream() {
-    Stream.Builder<Constraint> builder = Stream.builder();
-    constraintPMap.forEach((d, constraint) -> builder.add(constraint));
-    return builder.build();
+    return Arrays.stream(constraints);
   }
 
   public Stream<Class<? extends Constraint>> domains() {
-    Stream.Builder<Class<? extends Constraint>> builder = Stream.builder();
-    constraintPMap.forEach((domain, constraint) -> builder.add(domain));
-    return builder.build();
+    return Arrays.stream(constraints).map(Constraint::getClass);
+  }
+
+  private int indexOf(Class<? extends Constraint> domain) {
+    if ((domainMask & ConstraintDomains.bit(domain)) == 0) {
+      return -1;
+    }
+    for (int i = 0; i < constraints.length; i++) {
+      if (constraints[i].getClass() == domain) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static long mask(Constraint[] constraints) {
+    long mask = 0L;
+    for (Constraint constraint : constraints) {
+      mask |= ConstraintDomains.bit(constraint.getClass());
+    }
+    return mask;
   }
 
   @Override
@@ -88,7 +139,8 @@ public class ConstraintsByDomain {
       return false;
     }
     ConstraintsByDomain that = (ConstraintsByDomain) o;
-    return constraintPMap.equals(that.constraintPMap);
+    // constraints are ordered by domain, so equal constraints are stored in the same order
+    return hashCode == that.hashCode && domainMask == that.domainMask && Arrays.equals(constraints, that.constraints);
   }
 
   @Override
@@ -98,6 +150,6 @@ public class ConstraintsByDomain {
 
   @Override
   public int hashCode() {
-    return constraintPMap.hashCode();
+    return hashCode;
   }
 }
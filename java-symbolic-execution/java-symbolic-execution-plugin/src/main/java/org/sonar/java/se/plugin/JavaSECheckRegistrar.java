@@ -22,9 +22,11 @@ import org.sonar.api.SonarRuntime;
 import org.sonar.api.batch.rule.CheckFactory;
 import org.sonar.api.batch.rule.Checks;
 import org.sonar.api.ce.ComputeEngineSide;
+import org.sonar.api.config.Configuration;
 import org.sonar.api.scanner.ScannerSide;
 import org.sonar.api.server.ServerSide;
 import org.sonar.api.server.rule.RulesDefinition;
+import org.sonar.java.se.SymbolicExecutionSettings;
 import org.sonar.java.se.SymbolicExecutionVisitor;
 import org.sonar.java.se.checks.SECheck;
 import org.sonar.plugins.java.api.CheckRegistrar;
@@ -42,9 +44,19 @@ public class JavaSECheckRegistrar implements CheckRegistrar {
 
   private static final Set<String> RULE_TEMPLATES_KEY = Set.of("S3546");
   private final SonarRuntime runtime;
+  private final SymbolicExecutionSettings settings;
 
   public JavaSECheckRegistrar(SonarRuntime runtime) {
+    this(runtime, SymbolicExecutionSettings.DEFAULT);
+  }
+
+  public JavaSECheckRegistrar(SonarRuntime runtime, Configuration configuration) {
+    this(runtime, SymbolicExecutionSettings.fromConfiguration(configuration));
+  }
+
+  private JavaSECheckRegistrar(SonarRuntime runtime, SymbolicExecutionSettings settings) {
     this.runtime = runtime;
+    this.settings = settings;
   }
 
   @Override
@@ -63,7 +75,7 @@ public class JavaSECheckRegistrar implements CheckRegistrar {
 
     var ruleKeys = seChecks.stream().map(checks::ruleKey).toList();
 
-    registrarContext.registerMainSharedCheck(new SymbolicExecutionVisitor(seChecks), ruleKeys);
+    registrarContext.registerMainSharedCheck(new SymbolicExecutionVisitor(seChecks, settings), ruleKeys);
     registrarContext.registerMainChecks(checks, seChecks);
   }
 
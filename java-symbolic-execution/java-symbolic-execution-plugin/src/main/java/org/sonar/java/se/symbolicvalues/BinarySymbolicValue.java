@@ -35,8 +35,8 @@ public abstract class BinarySymbolicValue extends SymbolicValue {
   Symbol rightSymbol;
 
   @Override
-  public boolean references(SymbolicValue other) {
-    return leftOp.equals(other) || rightOp.equals(other) || leftOp.references(other) || rightOp.references(other);
+  public List<SymbolicValue> referencedValues() {
+    return Arrays.asList(leftOp, rightOp);
   }
 
   @Override
@@ -0,0 +1,132 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se.symbolicvalues;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import org.sonar.java.se.ProgramState;
+import org.sonarsource.analyzer.commons.collections.PCollections;
+import org.sonarsource.analyzer.commons.collections.PMap;
+import org.sonarsource.analyzer.commons.collections.PSet;
+
+/**
+ * Relations known to hold while setting a constraint on a {@link RelationalSymbolicValue}, indexed by operand.
+ * A relation can only be resolved or combined with a relation sharing one of its operands (see {@link RelationStateTable} and
+ * {@link RelationalSymbolicValue#deduceTransitiveOrSimplified(RelationalSymbolicValue)}): only those are visited. The index starts
+ * from the persistent one of the program state and is updated in place of being rebuilt, so the cost of a new relation depends on
+ * the relations it touches, not on all the relations of the program state.
+ */
+class KnownRelations {
+
+  private static final int MAX_ITERATIONS = 10_000;
+  private static final int MAX_COMBINATIONS = 100_000;
+
+  private PSet<RelationalSymbolicValue> relations;
+  private PMap<SymbolicValue, PSet<RelationalSymbolicValue>> relationsByOperand;
+
+  KnownRelations(ProgramState programState) {
+    this.relations = programState.knownRelations();
+    this.relationsByOperand = programState.knownRelationsByOperand();
+  }
+
+  // VisibleForTesting
+  KnownRelations(Iterable<RelationalSymbolicValue> relations) {
+    this.relations = PCollections.emptySet();
+    this.relationsByOperand = PCollections.emptyMap();
+    relations.forEach(this::add);
+  }
+
+  boolean contains(RelationalSymbolicValue relation) {
+    return relations.contains(relation);
+  }
+
+  void add(RelationalSymbolicValue relation) {
+    PSet<RelationalSymbolicValue> newRelations = relations.add(relation);
+    if (newRelations != relations) {
+      relations = newRelations;
+      relationsByOperand = addOperand(relationsByOperand, relation.leftOp, relation);
+      relationsByOperand = addOperand(relationsByOperand, relation.rightOp, relation);
+    }
+  }
+
+  private static PMap<SymbolicValue, PSet<RelationalSymbolicValue>> addOperand(PMap<SymbolicValue, PSet<RelationalSymbolicValue>> relationsByOperand,
+    SymbolicValue operand, RelationalSymbolicValue relation) {
+    PSet<RelationalSymbolicValue> operandRelations = relationsByOperand.get(operand);
+    if (operandRelations == null) {
+      operandRelations = PCollections.emptySet();
+    }
+    return relationsByOperand.put(operand, operandRelations.add(relation));
+  }
+
+  private Iterable<RelationalSymbolicValue> withOperand(SymbolicValue operand) {
+    PSet<RelationalSymbolicValue> operandRelations = relationsByOperand.get(operand);
+    return operandRelations == null ? PCollections.emptySet() : operandRelations;
+  }
+
+  RelationState resolve(RelationalSymbolicValue relation) {
+    if (relation.hasSameOperand()) {
+      return relation.relationStateForSameOperand();
+    }
+    // a known relation can only determine the given one when it has the same operands
+    for (RelationalSymbolicValue known : withOperand(relation.leftOp)) {
+      RelationState relationState = known.implies(relation);
+      if (relationState.isDetermined()) {
+        return relationState;
+      }
+    }
+    return RelationState.UNDETERMINED;
+  }
+
+  /**
+   * @return the relations deduced from the given one and the known relations, which are not already known
+   */
+  Set<RelationalSymbolicValue> transitiveRelations(RelationalSymbolicValue relation) {
+    Set<RelationalSymbolicValue> newRelations = new HashSet<>();
+    Deque<RelationalSymbolicValue> workList = new ArrayDeque<>();
+    int iterations = 0;
+    int combinations = 0;
+    workList.add(relation);
+    while (!workList.isEmpty()) {
+      if (combinations > MAX_COMBINATIONS || iterations > MAX_ITERATIONS) {
+        // safety mechanism in case of an error in the algorithm
+        throw new RelationalSymbolicValue.TransitiveRelationExceededException("Combined relations: " + combinations + ". Iterations " + iterations);
+      }
+      iterations++;
+      RelationalSymbolicValue current = workList.pop();
+      combinations += combine(current, withOperand(current.leftOp), newRelations, workList);
+      if (!current.leftOp.equals(current.rightOp)) {
+        combinations += combine(current, withOperand(current.rightOp), newRelations, workList);
+      }
+    }
+    return newRelations;
+  }
+
+  private int combine(RelationalSymbolicValue relation, Iterable<RelationalSymbolicValue> knownRelations, Set<RelationalSymbolicValue> newRelations,
+    Deque<RelationalSymbolicValue> workList) {
+    int combinations = 0;
+    for (RelationalSymbolicValue knownRelation : knownRelations) {
+      combinations++;
+      RelationalSymbolicValue r = relation.deduceTransitiveOrSimplified(knownRelation);
+      if (r != null && !relations.contains(r) && newRelations.add(r)) {
+        workList.add(r);
+      }
+    }
+    return combinations;
+  }
+}
@@ -16,10 +16,8 @@
  */
 package org.sonar.java.se.symbolicvalues;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -41,9 +39,6 @@ import static org.sonar.java.se.symbolicvalues.RelationalSymbolicValue.Kind.METH
 
 public class RelationalSymbolicValue extends BinarySymbolicValue {
 
-  private static final int MAX_ITERATIONS = 10_000;
-  private static final int MAX_DEDUCED_RELATIONS = 100_000;
-
   public enum Kind {
     EQUAL("=="),
     NOT_EQUAL("!="),
@@ -95,11 +90,11 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
 
   @Override
   public List<ProgramState> setConstraint(ProgramState initialProgramState, BooleanConstraint booleanConstraint) {
-    return setConstraint(initialProgramState, booleanConstraint, new HashSet<>(initialProgramState.knownRelations()));
+    return setConstraint(initialProgramState, booleanConstraint, new KnownRelations(initialProgramState));
   }
 
   @Override
-  protected List<ProgramState> setConstraint(ProgramState initialProgramState, Constraint constraint, Set<RelationalSymbolicValue> knownRelations) {
+  List<ProgramState> setConstraint(ProgramState initialProgramState, Constraint constraint, KnownRelations knownRelations) {
     if (constraint == BooleanConstraint.FALSE) {
       return inverse().setConstraint(initialProgramState, BooleanConstraint.TRUE, knownRelations);
     }
@@ -112,10 +107,10 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
     }
     Set<RelationalSymbolicValue> newRelations = new HashSet<>();
     newRelations.add(this);
-    newRelations.addAll(transitiveRelations(knownRelations));
+    newRelations.addAll(knownRelations.transitiveRelations(this));
 
     boolean unfulfilled = newRelations.stream()
-      .map(r -> r.resolveRelationState(knownRelations))
+      .map(knownRelations::resolve)
       .anyMatch(RelationState.UNFULFILLED::equals);
 
     if (unfulfilled) {
@@ -126,7 +121,7 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
   }
 
   private static List<ProgramState> getNewProgramStates(ProgramState initialProgramState, Set<RelationalSymbolicValue> newRelations,
-                                                        Set<RelationalSymbolicValue> knownRelations) {
+                                                        KnownRelations knownRelations) {
     List<ProgramState> programStates = new ArrayList<>();
     programStates.add(initialProgramState);
     for (RelationalSymbolicValue relationalSymbolicValue : newRelations) {
@@ -143,7 +138,7 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
     return new RelationalSymbolicValue(kind.inverse(), leftOp, rightOp);
   }
 
-  private List<ProgramState> copyAllConstraints(ProgramState initialState, Set<RelationalSymbolicValue> knownRelations) {
+  private List<ProgramState> copyAllConstraints(ProgramState initialState, KnownRelations knownRelations) {
     ProgramState programState = initialState;
     if (programState.canReach(leftOp) || programState.canReach(rightOp)) {
       programState = programState.addConstraint(this, BooleanConstraint.TRUE);
@@ -198,7 +193,7 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
     return Stream.of(copiedConstraints, nullConstraints).flatMap(List::stream).toList();
   }
 
-  private List<ProgramState> copyConstraintFromTo(SymbolicValue from, SymbolicValue to, ProgramState programState, Set<RelationalSymbolicValue> knownRelations) {
+  private List<ProgramState> copyConstraintFromTo(SymbolicValue from, SymbolicValue to, ProgramState programState, KnownRelations knownRelations) {
     List<ProgramState> states = new ArrayList<>();
     states.add(programState);
     ConstraintsByDomain leftConstraints = programState.getConstraints(from);
@@ -213,7 +208,7 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
     return states;
   }
 
-  private void applyConstraints(SymbolicValue symbolicValue, Set<RelationalSymbolicValue> knownRelations, List<ProgramState> states, ConstraintsByDomain constraints) {
+  private void applyConstraints(SymbolicValue symbolicValue, KnownRelations knownRelations, List<ProgramState> states, ConstraintsByDomain constraints) {
     constraints.forEach((d, c) -> {
       Constraint constraint = c.copyOver(kind);
       if (constraint != null) {
@@ -224,7 +219,7 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
     });
   }
 
-  private static List<ProgramState> applyConstraint(Constraint constraint, SymbolicValue to, List<ProgramState> states, Set<RelationalSymbolicValue> knownRelations) {
+  private static List<ProgramState> applyConstraint(Constraint constraint, SymbolicValue to, List<ProgramState> states, KnownRelations knownRelations) {
     List<ProgramState> newStates = new ArrayList<>();
     states.forEach(state -> newStates.addAll(to.setConstraint(state, constraint, knownRelations)));
     return newStates;
@@ -232,17 +227,10 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
 
   // VisibleForTesting
   RelationState resolveRelationState(Set<RelationalSymbolicValue> knownRelations) {
-    if (hasSameOperand()) {
-      return relationStateForSameOperand();
-    }
-
-    return knownRelations.stream()
-      .map(r -> r.implies(this))
-      .filter(RelationState::isDetermined)
-      .findAny().orElse(RelationState.UNDETERMINED);
+    return new KnownRelations(knownRelations).resolve(this);
   }
 
-  private RelationState relationStateForSameOperand() {
+  RelationState relationStateForSameOperand() {
     switch (kind) {
       case EQUAL,
         GREATER_THAN_OR_EQUAL,
@@ -257,7 +245,7 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
     }
   }
 
-  private RelationState implies(RelationalSymbolicValue relation) {
+  RelationState implies(RelationalSymbolicValue relation) {
     if (this.equals(relation)) {
       return RelationState.FULFILLED;
     }
@@ -272,26 +260,7 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
 
   // VisibleForTesting
   Set<RelationalSymbolicValue> transitiveRelations(Set<RelationalSymbolicValue> knownRelations) {
-    Set<RelationalSymbolicValue> newRelations = new HashSet<>();
-    Deque<RelationalSymbolicValue> workList = new ArrayDeque<>();
-    int iterations = 0;
-    workList.add(this);
-    while (!workList.isEmpty()) {
-      int relationSize = newRelations.size() * knownRelations.size();
-      if (relationSize > MAX_DEDUCED_RELATIONS || iterations > MAX_ITERATIONS) {
-        // safety mechanism in case of an error in the algorithm
-        throw new RelationalSymbolicValue.TransitiveRelationExceededException("Used relations: " + relationSize + ". Iterations " + iterations);
-      }
-      iterations++;
-      RelationalSymbolicValue relation = workList.pop();
-      for (RelationalSymbolicValue knownRelation : knownRelations) {
-        RelationalSymbolicValue r = relation.deduceTransitiveOrSimplified(knownRelation);
-        if (r != null && !knownRelations.contains(r) && newRelations.add(r)) {
-          workList.add(r);
-        }
-      }
-    }
-    return newRelations;
+    return new KnownRelations(knownRelations).transitiveRelations(this);
   }
 
   // VisibleForTesting
@@ -395,7 +364,7 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
     return null;
   }
 
-  private boolean hasSameOperand() {
+  boolean hasSameOperand() {
     return leftOp.equals(rightOp);
   }
 
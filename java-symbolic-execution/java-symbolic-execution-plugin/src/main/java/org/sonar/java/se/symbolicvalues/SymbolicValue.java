@@ -20,7 +20,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.java.Preconditions;
@@ -36,7 +36,7 @@ import org.sonar.plugins.java.api.semantic.Type;
 
 public class SymbolicValue {
 
-  public static final SymbolicValue NULL_LITERAL = new SymbolicValue() {
+  public static final SymbolicValue NULL_LITERAL = new SymbolicValue(0) {
 
     @Override
     public List<ProgramState> setConstraint(ProgramState programState, BooleanConstraint booleanConstraint) {
@@ -57,14 +57,14 @@ public class SymbolicValue {
     }
   };
 
-  public static final SymbolicValue TRUE_LITERAL = new SymbolicValue() {
+  public static final SymbolicValue TRUE_LITERAL = new SymbolicValue(1) {
     @Override
     public String toString() {
       return "SV_TRUE";
     }
   };
 
-  public static final SymbolicValue FALSE_LITERAL = new SymbolicValue() {
+  public static final SymbolicValue FALSE_LITERAL = new SymbolicValue(2) {
     @Override
     public String toString() {
       return "SV_FALSE";
@@ -77,12 +77,19 @@ public class SymbolicValue {
     FALSE_LITERAL
   );
 
-  private static int idGenerator;
+  // ids of the literals are reserved
+  private static final int FIRST_ID = 3;
+  // ids of the symbolic values created out of the exploration of a method
+  private static final AtomicInteger ID_GENERATOR = new AtomicInteger(FIRST_ID);
   private final int id;
 
   public SymbolicValue() {
-    id = idGenerator;
-    idGenerator++;
+    IdArena arena = IdArena.CURRENT.get();
+    id = arena == null ? ID_GENERATOR.getAndIncrement() : arena.nextId();
+  }
+
+  private SymbolicValue(int id) {
+    this.id = id;
   }
 
   @Override
@@ -98,8 +105,7 @@ public class SymbolicValue {
     if (o == null || getClass() != o.getClass()) {
       return false;
     }
-    SymbolicValue that = (SymbolicValue) o;
-    Preconditions.checkState(id != that.id, "Impossible to have two SV with same id");
+    // symbolic values created by the explorations of different methods can share the same id
     return false;
   }
 
@@ -110,10 +116,25 @@ public class SymbolicValue {
     return !PROTECTED_SYMBOLIC_VALUES.contains(symbolicValue) && !(symbolicValue instanceof RelationalSymbolicValue);
   }
 
-  public boolean references(SymbolicValue other) {
+  /**
+   * @return true if the given symbolic value is one of the {@link #referencedValues() referenced values}, directly or through them
+   */
+  public final boolean references(SymbolicValue other) {
+    for (SymbolicValue referencedValue : referencedValues()) {
+      if (referencedValue.equals(other) || referencedValue.references(other)) {
+        return true;
+      }
+    }
     return false;
   }
 
+  /**
+   * @return the symbolic values this one is built on, which have to be kept as long as this one is
+   */
+  public List<SymbolicValue> referencedValues() {
+    return Collections.emptyList();
+  }
+
   @Override
   public String toString() {
     return "SV_" + id;
@@ -176,7 +197,7 @@ public class SymbolicValue {
     return states.get(0);
   }
 
-  protected List<ProgramState> setConstraint(ProgramState state, Constraint constraint, Set<RelationalSymbolicValue> knownRelations) {
+  List<ProgramState> setConstraint(ProgramState state, Constraint constraint, KnownRelations knownRelations) {
     return setConstraint(state, constraint);
   }
 
@@ -190,8 +211,8 @@ public class SymbolicValue {
 
 
     @Override
-    public boolean references(SymbolicValue other) {
-      return operand.equals(other) || operand.references(other);
+    public List<SymbolicValue> referencedValues() {
+      return Collections.singletonList(operand);
     }
 
     @Override
@@ -281,10 +302,71 @@ public class SymbolicValue {
     }
   }
 
+  /**
+   * Ids of the symbolic values created by the exploration of a method on the current thread. They are dense, starting right after
+   * the ids of the literals, and are not shared with the explorations running on other threads. The symbolic values of different
+   * explorations are never found in the same program state, so their ids only have to be unique within an arena.
+   */
+  public static final class IdArena {
+    private static final ThreadLocal<IdArena> CURRENT = new ThreadLocal<>();
+
+    private int nextId = FIRST_ID;
+
+    private IdArena() {
+    }
+
+    private int nextId() {
+      return nextId++;
+    }
+
+    /**
+     * Starts a new arena on the current thread.
+     * @return the arena of the current thread before this one, to be restored once the exploration is done
+     */
+    @CheckForNull
+    public static IdArena enter() {
+      IdArena previous = CURRENT.get();
+      CURRENT.set(new IdArena());
+      return previous;
+    }
+
+    public static void restore(@Nullable IdArena previous) {
+      if (previous == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(previous);
+      }
+    }
+  }
+
   public abstract static class BooleanExpressionSymbolicValue extends BinarySymbolicValue {
 
+    // limit configured by the walker running on the current thread
+    private static final ThreadLocal<Integer> MAX_NESTED_STATES = new ThreadLocal<>();
+
+    /**
+     * Sets the limit of the exploration starting on the current thread.
+     * @return the limit of the current thread before this one, to be restored once the exploration is done
+     */
+    @CheckForNull
+    public static Integer enterMaxNestedStates(int maxNestedStates) {
+      Integer previous = MAX_NESTED_STATES.get();
+      MAX_NESTED_STATES.set(maxNestedStates);
+      return previous;
+    }
+
+    public static void restoreMaxNestedStates(@Nullable Integer previous) {
+      if (previous == null) {
+        MAX_NESTED_STATES.remove();
+      } else {
+        MAX_NESTED_STATES.set(previous);
+      }
+    }
+
     protected static void addStates(List<ProgramState> states, List<ProgramState> newStates) {
-      if (states.size() > ExplodedGraphWalker.MAX_NESTED_BOOLEAN_STATES || newStates.size() > ExplodedGraphWalker.MAX_NESTED_BOOLEAN_STATES) {
+      Integer limit = MAX_NESTED_STATES.get();
+      int maxNestedStates = limit == null ? ExplodedGraphWalker.MAX_NESTED_BOOLEAN_STATES : limit;
+      if (states.size() > maxNestedStates || newStates.size() > maxNestedStates) {
         throw new ExplodedGraphWalker.TooManyNestedBooleanStatesException();
       }
       states.addAll(newStates);
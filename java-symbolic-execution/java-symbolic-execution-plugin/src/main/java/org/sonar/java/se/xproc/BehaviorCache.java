@@ -25,9 +25,11 @@ import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
@@ -44,8 +46,11 @@ public class BehaviorCache {
   private SymbolicExecutionVisitor sev;
 
   // VisibleForTesting
-  public final Map<String, MethodBehavior> behaviors = new LinkedHashMap<>();
-  private Map<String, MethodBehavior> hardcodedBehaviors = null;
+  public final Map<String, MethodBehavior> behaviors = Collections.synchronizedMap(new LinkedHashMap<>());
+  private volatile Map<String, MethodBehavior> hardcodedBehaviors = null;
+  // behaviors being computed, and walkers waiting for one of them, both guarded by 'computations'
+  private final Map<String, Computation> computations = new HashMap<>();
+  private final Map<Thread, Computation> waitingFor = new HashMap<>();
 
   public void setFileContext(@Nullable SymbolicExecutionVisitor sev) {
     this.sev = sev;
@@ -83,20 +88,97 @@ public class BehaviorCache {
   @CheckForNull
   private MethodBehavior get(String signature, @Nullable Symbol.MethodSymbol symbol) {
     MethodBehavior mb = behaviors.get(signature);
-    if(mb != null) {
+    if (mb != null && mb.isVisited()) {
       return mb;
     }
     if (symbol != null) {
       MethodTree declaration = symbol.declaration();
       if (SymbolicExecutionVisitor.methodCanNotBeOverridden(symbol) && declaration != null) {
-        sev.execute(declaration);
-        return behaviors.get(signature);
+        return computeOrAwait(symbol, declaration);
       }
     }
-
+    if (mb != null) {
+      return mb;
+    }
     return hardcodedBehaviors().get(signature);
   }
 
+  private MethodBehavior computeOrAwait(Symbol.MethodSymbol symbol, MethodTree declaration) {
+    String signature = symbol.signature();
+    Thread currentThread = Thread.currentThread();
+    Computation computation;
+    synchronized (computations) {
+      computation = computations.get(signature);
+      if (computation == null) {
+        MethodBehavior mb = behaviors.get(signature);
+        if (mb != null) {
+          return mb;
+        }
+      } else if (computation.owner == currentThread || isWaitedBy(computation.owner, currentThread)) {
+        // recursive call, directly or through other walkers: waiting would never end, use the incomplete behavior
+        return computation.behavior;
+      } else {
+        waitingFor.put(currentThread, computation);
+      }
+    }
+    if (computation == null) {
+      sev.execute(declaration);
+      // the behavior is now computed, unless another walker started computing it in the meantime
+      return computeOrAwait(symbol, declaration);
+    }
+    try {
+      return computation.result.join();
+    } finally {
+      synchronized (computations) {
+        waitingFor.remove(currentThread);
+      }
+    }
+  }
+
+  /**
+   * Follows the chain of walkers waiting for each other, starting from the owner of a computation.
+   */
+  private boolean isWaitedBy(Thread owner, Thread thread) {
+    Computation awaited = waitingFor.get(owner);
+    while (awaited != null) {
+      if (awaited.owner == thread) {
+        return true;
+      }
+      awaited = waitingFor.get(awaited.owner);
+    }
+    return false;
+  }
+
+  /**
+   * Claims the computation of the behavior of a method for the current thread.
+   *
+   * @return the behavior to compute, or null when it is already computed or being computed by another walker
+   */
+  @CheckForNull
+  public MethodBehavior startComputation(Symbol.MethodSymbol symbol) {
+    synchronized (computations) {
+      MethodBehavior mb = methodBehaviorForSymbol(symbol);
+      if (mb.isVisited() || computations.containsKey(mb.signature())) {
+        return null;
+      }
+      computations.put(mb.signature(), new Computation(Thread.currentThread(), mb));
+      return mb;
+    }
+  }
+
+  /**
+   * Releases the walkers waiting for the behavior, whether its computation succeeded or not.
+   */
+  public void endComputation(MethodBehavior mb) {
+    Computation computation;
+    synchronized (computations) {
+      computation = computations.remove(mb.signature());
+    }
+    if (computation != null) {
+      computation.result.complete(mb);
+    }
+  }
+
   /**
    * Do not trigger any new computation of method behavior, just check if there is a known method behavior for the symbol.
    *
@@ -114,6 +196,17 @@ public class BehaviorCache {
     return hardcodedBehaviors().get(signature);
   }
 
+  private static class Computation {
+    private final Thread owner;
+    private final MethodBehavior behavior;
+    private final CompletableFuture<MethodBehavior> result = new CompletableFuture<>();
+
+    Computation(Thread owner, MethodBehavior behavior) {
+      this.owner = owner;
+      this.behavior = behavior;
+    }
+  }
+
   static class HardcodedMethodBehaviors {
     private static final String UNABLE_LOAD_MSG = "[SE] Unable to load hardcoded method behaviors. Defaulting to no hardcoded method behaviors.";
 
@@ -141,7 +234,7 @@ public class BehaviorCache {
 
     private static HardcodedMethodBehaviors uniqueInstance = null;
 
-    private static HardcodedMethodBehaviors uniqueInstance() {
+    private static synchronized HardcodedMethodBehaviors uniqueInstance() {
       if (uniqueInstance == null) {
         uniqueInstance = new HardcodedMethodBehaviors();
       }
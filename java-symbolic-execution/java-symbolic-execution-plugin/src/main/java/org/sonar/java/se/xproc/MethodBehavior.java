@@ -50,8 +50,10 @@ public class MethodBehavior {
   private final Set<MethodYield> yields;
   private final List<SymbolicValue> parameters;
   private final String signature;
-  private boolean complete = false;
-  private boolean visited = false;
+  // behaviors are shared between walkers when methods are explored in parallel
+  private volatile boolean complete = false;
+  private volatile boolean visited = false;
+  private volatile boolean partial = false;
   private List<String> declaredExceptions;
 
   public MethodBehavior(String signature, boolean varArgs) {
@@ -197,9 +199,24 @@ public class MethodBehavior {
   }
 
   public void completed() {
+    // reduce first, so that the yields are final once the behavior is seen as visited
+    reduceYields();
     this.complete = true;
     this.visited = true;
+  }
+
+  /**
+   * Exploration of the method has been interrupted: yields only cover the paths which have been fully explored. Callers have to
+   * consider the other paths as unknown.
+   */
+  public void partiallyCompleted() {
     reduceYields();
+    this.partial = true;
+    this.visited = true;
+  }
+
+  public boolean isPartial() {
+    return partial;
   }
 
   private void reduceYields() {
@@ -326,6 +343,7 @@ public class MethodBehavior {
       .append(varArgs, other.varArgs)
       .append(complete, other.complete)
       .append(visited, other.visited)
+      .append(partial, other.partial)
       .append(declaredExceptions, other.declaredExceptions)
       .append(yields, other.yields)
       .isEquals();
@@ -339,6 +357,7 @@ public class MethodBehavior {
       .append(varArgs)
       .append(complete)
       .append(visited)
+      .append(partial)
       .append(declaredExceptions)
       .append(yields)
       .toHashCode();
@@ -182,13 +182,17 @@ public abstract class MethodYield {
     String key = parameterIndices.stream().sorted().map(Object::toString).collect(Collectors.joining(","));
     String domainKey = domains.stream().map(Class::getName).sorted().reduce("", String::concat);
 
-    Map<String, Set<Flow>> flowByDomain = cachedFlows.computeIfAbsent(key, k -> new HashMap<>());
-    return flowByDomain.computeIfAbsent(domainKey,
-      k -> {
-        Set<SymbolicValue> symbolicValues = getSymbolicValues(parameterIndices);
-        Set<Symbol> trackedSymbols = getReturnSymbolAsTrackedSymbols(parameterIndices);
-        return FlowComputation.flow(node, symbolicValues, c -> true, c -> false, domains, trackedSymbols, maxReturnedFlows);
-      });
+    // the exploded graph of the method is shared by all its yields, and is not thread safe, while yields can be used
+    // by several walkers at the same time when methods are explored in parallel
+    synchronized (behavior) {
+      Map<String, Set<Flow>> flowByDomain = cachedFlows.computeIfAbsent(key, k -> new HashMap<>());
+      return flowByDomain.computeIfAbsent(domainKey,
+        k -> {
+          Set<SymbolicValue> symbolicValues = getSymbolicValues(parameterIndices);
+          Set<Symbol> trackedSymbols = getReturnSymbolAsTrackedSymbols(parameterIndices);
+          return FlowComputation.flow(node, symbolicValues, c -> true, c -> false, domains, trackedSymbols, maxReturnedFlows);
+        });
+    }
   }
 
   private Set<Symbol> getReturnSymbolAsTrackedSymbols(List<Integer> parameterIndices) {
@@ -0,0 +1,29 @@
+class LoopWidening {
+
+  private static int countFlags(boolean[] flags, Object o) {
+    int count = 0;
+    for (int i = 0; i < flags.length; i++) {
+      if (flags[i]) {
+        count++;
+      }
+      if (o == null) {
+        count--;
+      }
+    }
+    return count;
+  }
+
+  private static boolean iteratedTwice(int n) {
+    boolean first = true;
+    boolean twice = false;
+    int i = 0;
+    while (i < n) {
+      if (!first) {
+        twice = true;
+      }
+      first = false;
+      i++;
+    }
+    return twice;
+  }
+}
@@ -0,0 +1,30 @@
+class Subsumption {
+
+  void independentChecks(boolean b1, boolean b2, boolean b3, Object o) {
+    if (b1) {
+      o.toString();
+    }
+    if (b2) {
+      o.hashCode();
+    }
+    if (b3) {
+      o.getClass();
+    }
+    o.equals(null);
+  }
+
+  void mirroredChecks(boolean b1, boolean b2, Object o1, Object o2) {
+    // whichever branch is explored first, one of the two joins is reached by the more general state first
+    if (b1) {
+      o1.toString();
+    } else {
+      int x = 0;
+    }
+    if (b2) {
+      int y = 0;
+    } else {
+      o2.toString();
+    }
+    o1.equals(o2);
+  }
+}
@@ -16,9 +16,11 @@
  */
 package org.sonar.java.cfg;
 
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.sonar.java.se.utils.JParserTestUtils;
 import org.sonar.plugins.java.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
 import org.sonar.plugins.java.api.tree.MethodTree;
@@ -41,6 +43,22 @@ class SELiveVariablesTest {
     assertThat(liveVariables.getOut(cfg.reversedBlocks().get(3)).iterator().next().name()).isEqualTo("i");
   }
 
+  @Test
+  void test_more_variables_than_bits_in_a_word() {
+    StringBuilder declarations = new StringBuilder();
+    for (int i = 0; i < 70; i++) {
+      declarations.append("int v").append(i).append(" = 0; ");
+    }
+    ControlFlowGraph cfg = buildCFG("void foo(int a) { " + declarations + " if (false) ; foo(v0 + v69); }");
+    SELiveVariables liveVariables = SELiveVariables.analyze(cfg);
+    Set<Symbol> out = liveVariables.getOut(cfg.reversedBlocks().get(3));
+    assertThat(out).extracting(Symbol::name).containsExactlyInAnyOrder("v0", "v69");
+    assertThat(out).hasSize(2);
+    assertThat(out.contains(out.iterator().next())).isTrue();
+    assertThat(out.contains("v0")).isFalse();
+    assertThat(liveVariables.getOut(cfg.reversedBlocks().get(0))).isEmpty();
+  }
+
   @Test
   void test_try_finally_liveness() {
     ControlFlowGraph cfg = buildCFG(
@@ -0,0 +1,102 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+import java.io.File;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.sonar.java.se.utils.JParserTestUtils;
+import org.sonar.java.se.utils.SETestUtils;
+import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
+import org.sonar.plugins.java.api.tree.Tree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CallGraphTest {
+
+  @Test
+  void callees_are_scheduled_before_callers() {
+    List<MethodTree> methods = methods("src/test/resources/se/MethodBehavior.java");
+    CallGraph callGraph = CallGraph.build(methods);
+
+    assertThat(callGraph.schedule()).map(CallGraphTest::name)
+      .containsExactly("bar", "foo", "topMethod", "abstractMethod", "independent", "nativeMethod", "publicMethod");
+    assertThat(callGraph.calleesFirst(method(methods, "topMethod"))).map(CallGraphTest::name).containsExactly("bar", "foo");
+    // 'publicMethod' can be overridden, but its callees can not
+    assertThat(callGraph.calleesFirst(method(methods, "publicMethod"))).map(CallGraphTest::name).containsExactly("bar", "foo");
+    assertThat(callGraph.calleesFirst(method(methods, "independent"))).isEmpty();
+  }
+
+  @Test
+  void cycles_are_scheduled_together() {
+    List<MethodTree> methods = methods("src/test/resources/se/MutualRecursion.java");
+    CallGraph callGraph = CallGraph.build(methods);
+
+    assertThat(callGraph.schedule()).map(CallGraphTest::name).containsExactly("isEven", "isOdd", "helper", "first", "second");
+    // methods of the same cycle are not explored beforehand
+    assertThat(callGraph.calleesFirst(method(methods, "isOdd"))).isEmpty();
+    assertThat(callGraph.calleesFirst(method(methods, "first"))).map(CallGraphTest::name).containsExactly("isEven", "isOdd", "helper");
+  }
+
+  @Test
+  void long_chains_of_calls() {
+    int length = 10_000;
+    StringBuilder source = new StringBuilder("class A {\n");
+    for (int i = 0; i < length - 1; i++) {
+      source.append("  private void m").append(i).append("() { m").append(i + 1).append("(); }\n");
+    }
+    source.append("  private void m").append(length - 1).append("() { }\n}\n");
+    CompilationUnitTree cut = JParserTestUtils.parse("A.java", source.toString(), SETestUtils.CLASS_PATH);
+    List<MethodTree> methods = ((ClassTree) cut.types().get(0)).members().stream()
+      .map(MethodTree.class::cast)
+      .toList();
+    CallGraph callGraph = CallGraph.build(methods);
+
+    assertThat(callGraph.schedule()).hasSize(length);
+    assertThat(name(callGraph.schedule().get(0))).isEqualTo("m" + (length - 1));
+    List<MethodTree> calleesFirst = callGraph.calleesFirst(methods.get(0));
+    assertThat(calleesFirst).hasSize(length - 1);
+    assertThat(name(calleesFirst.get(0))).isEqualTo("m" + (length - 1));
+    assertThat(name(calleesFirst.get(length - 2))).isEqualTo("m1");
+  }
+
+  @Test
+  void unknown_method() {
+    List<MethodTree> methods = methods("src/test/resources/se/RecursiveCall.java");
+    CallGraph callGraph = CallGraph.build(List.of());
+    assertThat(callGraph.schedule()).isEmpty();
+    assertThat(callGraph.calleesFirst(methods.get(0))).isEmpty();
+  }
+
+  private static List<MethodTree> methods(String fileName) {
+    CompilationUnitTree cut = JParserTestUtils.parse(new File(fileName), SETestUtils.CLASS_PATH);
+    return ((ClassTree) cut.types().get(0)).members().stream()
+      .filter(member -> member.is(Tree.Kind.METHOD))
+      .map(MethodTree.class::cast)
+      .toList();
+  }
+
+  private static MethodTree method(List<MethodTree> methods, String name) {
+    return methods.stream().filter(m -> name(m).equals(name)).findFirst().orElseThrow();
+  }
+
+  private static String name(MethodTree method) {
+    return method.simpleName().name();
+  }
+}
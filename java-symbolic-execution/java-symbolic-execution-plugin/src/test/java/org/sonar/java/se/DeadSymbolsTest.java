@@ -0,0 +1,76 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.sonar.java.cfg.CFG;
+import org.sonar.java.cfg.SELiveVariables;
+import org.sonar.java.se.utils.CFGTestUtils;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph.Block;
+import org.sonar.plugins.java.api.semantic.Symbol;
+import org.sonar.plugins.java.api.tree.Tree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeadSymbolsTest {
+
+  @Test
+  void dead_symbols_at_block_exit() {
+    CFG cfg = CFGTestUtils.buildCFG("void foo(boolean b) { if (b) { boolean a = true; foo(a); } foo(b); }");
+    SELiveVariables liveVariables = SELiveVariables.analyze(cfg);
+    DeadSymbols deadSymbols = new DeadSymbols(cfg, liveVariables);
+
+    // parameters are bound before the entry block
+    assertThat(deadSymbols.atExit(cfg.entryBlock())).isNull();
+    Block declaringBlock = cfg.blocks().stream()
+      .filter(block -> block.elements().stream().anyMatch(element -> element.is(Tree.Kind.VARIABLE)))
+      .findFirst()
+      .orElseThrow();
+    assertThat(deadSymbols.atExit(declaringBlock)).extracting(Symbol::name).containsExactly("a");
+    for (Block block : cfg.blocks()) {
+      Set<Symbol> dead = deadSymbols.atExit(block);
+      if (dead != null) {
+        assertThat(dead).doesNotContainAnyElementsOf(liveVariables.getOut(block));
+      }
+    }
+  }
+
+  @Test
+  void dead_store_in_branch() {
+    CFG cfg = CFGTestUtils.buildCFG("void foo(boolean b) { int x = 0; foo(x); if (b) { x = 1; } foo(b); }");
+    DeadSymbols deadSymbols = new DeadSymbols(cfg, SELiveVariables.analyze(cfg));
+
+    Block assigningBlock = cfg.blocks().stream()
+      .filter(block -> block.elements().stream().anyMatch(element -> element.is(Tree.Kind.ASSIGNMENT)))
+      .findFirst()
+      .orElseThrow();
+    // 'x' is not live before the branch, but is bound by the assignment
+    assertThat(deadSymbols.atExit(assigningBlock)).extracting(Symbol::name).containsExactly("x");
+  }
+
+  @Test
+  void blocks_reached_by_exceptions_are_not_bounded() {
+    CFG cfg = CFGTestUtils.buildCFG("void foo(boolean b) { try { foo(b); } catch (Exception e) { foo(e != null); } }");
+    DeadSymbols deadSymbols = new DeadSymbols(cfg, SELiveVariables.analyze(cfg));
+
+    assertThat(cfg.blocks()).anyMatch(Block::isCatchBlock);
+    cfg.blocks().stream()
+      .filter(Block::isCatchBlock)
+      .forEach(block -> assertThat(deadSymbols.atExit(block)).isNull());
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeadlineTest {
+
+  @Test
+  void no_deadline() {
+    assertThat(Deadline.NONE.isExpired()).isFalse();
+    assertThat(Deadline.after(0)).isSameAs(Deadline.NONE);
+    assertThat(Deadline.after(-1)).isSameAs(Deadline.NONE);
+  }
+
+  @Test
+  void expiration() throws Exception {
+    Deadline deadline = Deadline.after(1);
+    Thread.sleep(10);
+    assertThat(deadline.isExpired()).isTrue();
+    assertThat(Deadline.after(60_000).isExpired()).isFalse();
+  }
+
+  @Test
+  void earliest() {
+    Deadline early = Deadline.after(1_000);
+    Deadline late = Deadline.after(60_000);
+    assertThat(early.earliest(late)).isSameAs(early);
+    assertThat(late.earliest(early)).isSameAs(early);
+    assertThat(early.earliest(Deadline.NONE)).isSameAs(early);
+    assertThat(Deadline.NONE.earliest(late)).isSameAs(late);
+  }
+
+  @Test
+  void current_deadline_is_per_thread() throws Exception {
+    Deadline deadline = Deadline.after(60_000);
+    assertThat(Deadline.current()).isSameAs(Deadline.NONE);
+    Deadline previous = Deadline.enter(deadline);
+    try {
+      assertThat(previous).isSameAs(Deadline.NONE);
+      assertThat(Deadline.current()).isSameAs(deadline);
+      Deadline[] otherThread = new Deadline[1];
+      Thread thread = new Thread(() -> otherThread[0] = Deadline.current());
+      thread.start();
+      thread.join();
+      assertThat(otherThread[0]).isSameAs(Deadline.NONE);
+    } finally {
+      Deadline.restore(previous);
+    }
+    assertThat(Deadline.current()).isSameAs(Deadline.NONE);
+  }
+}
@@ -17,8 +17,13 @@
 package org.sonar.java.se;
 
 import org.junit.jupiter.api.Test;
+import org.sonar.java.se.constraint.ObjectConstraint;
+import org.sonar.java.se.symbolicvalues.SymbolicValue;
+import org.sonar.java.se.utils.SETestUtils;
+import org.sonar.plugins.java.api.semantic.Symbol;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -74,6 +79,78 @@ class ExplodedGraphTest {
     assertThat(node1).isNotEqualTo(notANode);
   }
 
+  @Test
+  void test_siblings() {
+    ExplodedGraph eg = new ExplodedGraph();
+    ProgramPoint pp1 = mockProgramPoint("pp1");
+    ProgramPoint pp2 = mockProgramPoint("pp2");
+    ProgramState ps1 = mock(ProgramState.class);
+    ProgramState ps2 = mock(ProgramState.class);
+    ProgramState ps3 = mock(ProgramState.class);
+
+    ExplodedGraph.Node node1 = eg.node(pp1, ps1);
+    assertThat(node1.siblings()).isEmpty();
+    ExplodedGraph.Node node2 = eg.node(pp1, ps2);
+    ExplodedGraph.Node node3 = eg.node(pp1, ps3);
+    ExplodedGraph.Node other = eg.node(pp2, ps1);
+
+    assertThat(node1.siblings()).containsExactly(node2, node3);
+    assertThat(node2.siblings()).containsExactly(node1, node3);
+    assertThat(node3.siblings()).containsExactly(node1, node2);
+    // siblings are not consumed
+    assertThat(node2.siblings()).containsExactly(node1, node3);
+    assertThat(other.siblings()).isEmpty();
+  }
+
+  @Test
+  void test_subsumed_nodes() {
+    ExplodedGraph eg = new ExplodedGraph(true);
+    ProgramPoint pp1 = mockProgramPoint("pp1");
+    ProgramPoint pp2 = mockProgramPoint("pp2");
+    SymbolicValue sv = new SymbolicValue();
+    ProgramState general = ProgramState.EMPTY_STATE.stackValue(sv);
+    ProgramState precise = general.addConstraint(sv, ObjectConstraint.NOT_NULL);
+
+    assertThat(eg.isSubsumed(pp1, precise, false)).isFalse();
+    eg.node(pp1, general);
+    assertThat(eg.isSubsumed(pp1, precise, false)).isTrue();
+    // same state is not subsumed, but found in the graph
+    assertThat(eg.isSubsumed(pp1, general, false)).isFalse();
+    assertThat(eg.isSubsumed(pp1, precise, true)).isFalse();
+    assertThat(eg.isSubsumed(pp2, precise, false)).isFalse();
+    assertThat(eg.isSubsumed(pp1, precise.put(SETestUtils.variable("x"), sv), false)).isFalse();
+  }
+
+  @Test
+  void hash_consing_shares_equal_parts_of_states() {
+    ExplodedGraph eg = new ExplodedGraph(false, true);
+    SymbolicValue sv = new SymbolicValue();
+    Symbol x = SETestUtils.variable("x");
+    ProgramState ps1 = ProgramState.EMPTY_STATE.addConstraint(sv, ObjectConstraint.NOT_NULL).put(x, sv);
+    ProgramState ps2 = ProgramState.EMPTY_STATE.put(x, sv).addConstraint(sv, ObjectConstraint.NOT_NULL);
+    assertThat(ps1.values).isNotSameAs(ps2.values);
+    assertThat(ps1.getConstraints(sv)).isNotSameAs(ps2.getConstraints(sv));
+
+    ProgramState interned1 = eg.node(mockProgramPoint("pp1"), ps1).programState;
+    ProgramState interned2 = eg.node(mockProgramPoint("pp2"), ps2).programState;
+    assertThat(interned1).isEqualTo(ps1);
+    assertThat(interned2).isEqualTo(interned1);
+    // states are not shared, only their parts
+    assertThat(interned2).isNotSameAs(interned1);
+    assertThat(interned2.values).isSameAs(interned1.values);
+    assertThat(interned2.constraints).isSameAs(interned1.constraints);
+    assertThat(interned2.getConstraints(sv)).isSameAs(interned1.getConstraints(sv));
+  }
+
+  @Test
+  void subsumption_requires_index() {
+    ExplodedGraph eg = new ExplodedGraph();
+    ProgramPoint pp = mockProgramPoint("pp");
+    assertThatThrownBy(() -> eg.isSubsumed(pp, ProgramState.EMPTY_STATE, false))
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessage("Exploded graph is not indexed for subsumption");
+  }
+
   private ProgramPoint mockProgramPoint(String toString) {
     ProgramPoint mock = mock(ProgramPoint.class);
     when(mock.toString()).thenReturn(toString);
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
+import org.sonar.api.config.internal.MapSettings;
 import org.sonar.java.checks.verifier.TestUtils;
 import org.sonar.java.se.checks.AllowXMLInclusionCheck;
 import org.sonar.java.se.checks.BooleanGratuitousExpressionsCheck;
@@ -205,10 +206,10 @@ class ExplodedGraphWalkerTest {
 
               if (getNode) {
                 if (firstExceptionalNode == null) {
-                  firstExceptionalNode = workList.peekFirst();
+                  firstExceptionalNode = workList.peek();
                 }
                 assertThat(workList).as("Should have created a new node in the graph for each of the exceptions").hasSize(workListSize + 1);
-                assertThat(workList.peekFirst().programState.peekValue()).as("Exceptional Symbolic Value should stay on the stack").isEqualTo(exceptionSV);
+                assertThat(workList.peek().programState.peekValue()).as("Exceptional Symbolic Value should stay on the stack").isEqualTo(exceptionSV);
                 tested[0]++;
               }
             }
@@ -263,7 +264,7 @@ class ExplodedGraphWalkerTest {
               assertThat(workList).hasSize(workListSize + 1);
               if (shouldEnqueueFalseBranch) {
                 assertThat(programPoints[1]).isNull();
-                programPoints[1] = workList.peekFirst().programPoint;
+                programPoints[1] = workList.peek().programPoint;
               }
             }
           };
@@ -369,6 +370,76 @@ class ExplodedGraphWalkerTest {
       .verifyNoIssues();
   }
 
+  @Test
+  void test_maximum_steps_from_settings() {
+    SymbolicExecutionSettings settings = SymbolicExecutionSettings.fromConfiguration(new MapSettings()
+      .setProperty(SymbolicExecutionSettings.MAX_STEPS_KEY, 100)
+      .setProperty(SymbolicExecutionSettings.MAX_STARTING_STATES_KEY, 4)
+      .asConfig());
+    ExplodedGraphWalker.ExplodedGraphWalkerFactory factory = new ExplodedGraphWalker.ExplodedGraphWalkerFactory(new ArrayList<>(), settings);
+    SECheckVerifier.newVerifier()
+      .onFile("src/test/files/se/MaxSteps.java")
+      .withCheck(new SymbolicExecutionVisitor(Collections.emptyList()) {
+        @Override
+        public void visitMethod(MethodTree methodTree) {
+          ExplodedGraphWalker explodedGraphWalker = factory.createWalker(this.behaviorCache, context);
+          MethodBehavior methodBehavior = methodBehaviorForSymbol(methodTree.symbol());
+          try {
+            explodedGraphWalker.visitMethod(methodTree, methodBehavior);
+            fail("Too many states were processed !");
+          } catch (ExplodedGraphWalker.MaximumStepsReachedException exception) {
+            assertThat(exception.getMessage()).startsWith("reached limit of 100 steps for method");
+          }
+        }
+      })
+      .withClassPath(SETestUtils.CLASS_PATH)
+      .verifyNoIssues();
+  }
+
+  @Test
+  void test_time_budget_reached() {
+    SymbolicExecutionSettings settings = SymbolicExecutionSettings.fromConfiguration(new MapSettings()
+      .setProperty(SymbolicExecutionSettings.METHOD_TIMEOUT_KEY, 1)
+      .asConfig());
+    List<Exception> interruptionCauses = new ArrayList<>();
+    SECheck check = new SECheck() {
+      @Override
+      public void interruptedExecution(CheckerContext context) {
+        interruptionCauses.add(((CheckerDispatcher) context).interruptionCause());
+      }
+    };
+    ExplodedGraphWalker.ExplodedGraphWalkerFactory factory = new ExplodedGraphWalker.ExplodedGraphWalkerFactory(Collections.singletonList(check), settings);
+    SECheckVerifier.newVerifier()
+      .onFile("src/test/files/se/MaxSteps.java")
+      .withCheck(new SymbolicExecutionVisitor(Collections.emptyList()) {
+        @Override
+        public void visitMethod(MethodTree methodTree) {
+          ExplodedGraphWalker explodedGraphWalker = factory.createWalker(this.behaviorCache, context);
+          MethodBehavior methodBehavior = methodBehaviorForSymbol(methodTree.symbol());
+          try {
+            explodedGraphWalker.visitMethod(methodTree, methodBehavior);
+            fail("Time budget should have been exceeded !");
+          } catch (ExplodedGraphWalker.TimeBudgetExceededException exception) {
+            assertThat(exception.getMessage()).startsWith("reached time budget for method");
+            // checks are notified, so that they release the state of the method
+            assertThat(interruptionCauses).containsExactly(exception);
+          }
+          assertThat(Deadline.current()).isSameAs(Deadline.NONE);
+        }
+      })
+      .withClassPath(SETestUtils.CLASS_PATH)
+      .verifyNoIssues();
+  }
+
+  @Test
+  void test_file_time_budget_reached() {
+    SymbolicExecutionSettings settings = SymbolicExecutionSettings.fromConfiguration(new MapSettings()
+      .setProperty(SymbolicExecutionSettings.FILE_TIMEOUT_KEY, 1)
+      .asConfig());
+    // exception is handled by the visitor: exploration stops long before reaching the maximum number of steps
+    assertThat(countSteps("src/test/files/se/MaxSteps.java", settings)).isLessThan(SymbolicExecutionSettings.DEFAULT.maxSteps());
+  }
+
   @Test
   void test_maximum_steps_reached_with_issue() {
     SECheckVerifier.newVerifier()
@@ -700,6 +771,35 @@ class ExplodedGraphWalkerTest {
     assertThat(factory.seChecks.stream().map(c -> c.getClass().getSimpleName()).sorted().toList()).isEqualTo(seChecks);
   }
 
+  @Test
+  void subsumed_states_are_not_explored() {
+    SymbolicExecutionSettings subsumption = SymbolicExecutionSettings.fromConfiguration(
+      new MapSettings().setProperty(SymbolicExecutionSettings.SUBSUMPTION_KEY, true).asConfig());
+    int stepsWithoutSubsumption = countSteps("src/test/files/se/Subsumption.java", SymbolicExecutionSettings.DEFAULT);
+    int stepsWithSubsumption = countSteps("src/test/files/se/Subsumption.java", subsumption);
+    assertThat(stepsWithSubsumption)
+      .isPositive()
+      .isLessThan(stepsWithoutSubsumption);
+  }
+
+  private static int countSteps(String fileName, SymbolicExecutionSettings settings) {
+    List<ExplodedGraphWalker> walkers = new ArrayList<>();
+    SymbolicExecutionVisitor sev = new SymbolicExecutionVisitor(Collections.singletonList(new NullDereferenceCheck()), settings) {
+      @Override
+      protected ExplodedGraphWalker getWalker() {
+        ExplodedGraphWalker walker = super.getWalker();
+        walkers.add(walker);
+        return walker;
+      }
+    };
+    SECheckVerifier.newVerifier()
+      .onFile(fileName)
+      .withCheck(sev)
+      .withClassPath(SETestUtils.CLASS_PATH)
+      .verifyNoIssues();
+    return walkers.stream().mapToInt(walker -> walker.steps).sum();
+  }
+
   @Test
   void private_method_should_be_visited() {
     List<String> visitedMethods = new ArrayList<>();
@@ -714,7 +814,8 @@ class ExplodedGraphWalkerTest {
       .withCheck(check)
       .withClassPath(SETestUtils.CLASS_PATH)
       .verifyNoIssues();
-    assertThat(visitedMethods).containsExactly("test", "privateMethod");
+    // the private method is called by the default method, so it is explored first
+    assertThat(visitedMethods).containsExactly("privateMethod", "test");
   }
 
   @Test
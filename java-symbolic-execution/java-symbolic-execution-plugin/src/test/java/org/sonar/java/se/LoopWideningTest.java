@@ -0,0 +1,133 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import org.junit.jupiter.api.Test;
+import org.sonar.api.config.internal.MapSettings;
+import org.sonar.java.se.checks.NullDereferenceCheck;
+import org.sonar.java.se.constraint.BooleanConstraint;
+import org.sonar.java.se.constraint.ConstraintManager;
+import org.sonar.java.se.constraint.ConstraintsByDomain;
+import org.sonar.java.se.constraint.ObjectConstraint;
+import org.sonar.java.se.symbolicvalues.SymbolicValue;
+import org.sonar.java.se.utils.JParserTestUtils;
+import org.sonar.java.se.utils.SETestUtils;
+import org.sonar.java.se.xproc.HappyPathYield;
+import org.sonar.java.se.xproc.MethodBehavior;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph.Block;
+import org.sonar.plugins.java.api.semantic.Symbol;
+import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
+import org.sonar.plugins.java.api.tree.Tree;
+import org.sonar.plugins.java.api.tree.VariableTree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.sonar.java.se.utils.SETestUtils.createSymbolicExecutionVisitor;
+import static org.sonar.java.se.utils.SETestUtils.getMethodBehavior;
+
+class LoopWideningTest {
+
+  @Test
+  void variables_modified_by_loop_are_widened() {
+    CompilationUnitTree cut = JParserTestUtils.parse("class A { void foo() { boolean b = true; int j = 0; while (cond()) { b = !b; } } boolean cond() { return true; } }");
+    MethodTree method = (MethodTree) ((ClassTree) cut.types().get(0)).members().get(0);
+    Symbol b = ((VariableTree) method.block().body().get(0)).symbol();
+    Symbol j = ((VariableTree) method.block().body().get(1)).symbol();
+    ControlFlowGraph cfg = method.cfg();
+    Block loopHead = cfg.blocks().stream()
+      .filter(block -> block.terminator() != null && block.terminator().is(Tree.Kind.WHILE_STATEMENT))
+      .findFirst()
+      .orElseThrow();
+    LoopWidening widening = new LoopWidening(cfg, new ConstraintManager());
+
+    SymbolicValue sv1 = new SymbolicValue();
+    SymbolicValue sv2 = new SymbolicValue();
+    SymbolicValue svJ = new SymbolicValue();
+    ProgramState first = ProgramState.EMPTY_STATE.put(b, sv1).put(j, svJ)
+      .addConstraint(sv1, BooleanConstraint.TRUE).addConstraint(sv1, ObjectConstraint.NOT_NULL);
+    ProgramPoint head = new ProgramPoint(loopHead);
+
+    ProgramState widened = widening.widen(head, first);
+    SymbolicValue widenedValue = widened.getValue(b);
+    assertThat(widenedValue).isNotIn(sv1, sv2);
+    assertThat(widened.getConstraints(widenedValue)).isEqualTo(ConstraintsByDomain.empty().put(BooleanConstraint.TRUE).put(ObjectConstraint.NOT_NULL));
+    // not modified by the loop
+    assertThat(widened.getValue(j)).isSameAs(svJ);
+
+    ProgramState second = widened.put(b, sv2).addConstraint(sv2, BooleanConstraint.FALSE).addConstraint(sv2, ObjectConstraint.NOT_NULL);
+    ProgramState widenedAgain = widening.widen(head, second);
+    assertThat(widenedAgain.getValue(b)).isSameAs(widenedValue);
+    // unstable boolean constraint is dropped
+    assertThat(widenedAgain.getConstraints(widenedValue)).isEqualTo(ConstraintsByDomain.empty().put(ObjectConstraint.NOT_NULL));
+    assertThat(widening.widen(head, widenedAgain)).isEqualTo(widenedAgain);
+
+    // only the head of the loop is widened
+    assertThat(widening.widen(head.next(), second)).isSameAs(second);
+    assertThat(widening.widen(new ProgramPoint(cfg.entryBlock()), second)).isSameAs(second);
+  }
+
+  @Test
+  void loops_converge_with_widening() {
+    SymbolicExecutionSettings settings = SymbolicExecutionSettings.fromConfiguration(
+      new MapSettings().setProperty(SymbolicExecutionSettings.LOOP_WIDENING_KEY, true).asConfig());
+    SymbolicExecutionVisitor sev = createSymbolicExecutionVisitor("src/test/files/se/LoopWidening.java", settings, new NullDereferenceCheck());
+    MethodBehavior behavior = getMethodBehavior(sev, "countFlags");
+    assertThat(behavior.isComplete()).isTrue();
+    assertThat(behavior.yields()).isNotEmpty();
+
+    assertThat(countSteps(settings)).isLessThan(countSteps(SymbolicExecutionSettings.DEFAULT));
+  }
+
+  @Test
+  void relations_of_previous_iterations_are_forgotten() {
+    SymbolicExecutionSettings settings = SymbolicExecutionSettings.fromConfiguration(
+      new MapSettings().setProperty(SymbolicExecutionSettings.LOOP_WIDENING_KEY, true).asConfig());
+    SymbolicExecutionVisitor sev = createSymbolicExecutionVisitor("src/test/files/se/LoopWidening.java", settings, new NullDereferenceCheck());
+    MethodBehavior behavior = getMethodBehavior(sev, "iteratedTwice");
+    assertThat(behavior.isComplete()).isTrue();
+    // 'i < n' learned at the second iteration does not prevent to exit the loop after it
+    assertThat(behavior.happyPathYields()
+      .map(HappyPathYield::resultConstraint)
+      .filter(Objects::nonNull)
+      .map(constraints -> constraints.get(BooleanConstraint.class)))
+      .contains(BooleanConstraint.TRUE, BooleanConstraint.FALSE);
+  }
+
+  private static int countSteps(SymbolicExecutionSettings settings) {
+    List<ExplodedGraphWalker> walkers = new ArrayList<>();
+    SymbolicExecutionVisitor sev = new SymbolicExecutionVisitor(Collections.singletonList(new NullDereferenceCheck()), settings) {
+      @Override
+      protected ExplodedGraphWalker getWalker() {
+        ExplodedGraphWalker walker = super.getWalker();
+        walkers.add(walker);
+        return walker;
+      }
+    };
+    SECheckVerifier.newVerifier()
+      .onFile("src/test/files/se/LoopWidening.java")
+      .withCheck(sev)
+      .withClassPath(SETestUtils.CLASS_PATH)
+      .verifyNoIssues();
+    return walkers.stream().mapToInt(walker -> walker.steps).sum();
+  }
+}
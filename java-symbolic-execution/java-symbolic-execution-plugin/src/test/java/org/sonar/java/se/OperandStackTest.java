@@ -0,0 +1,100 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+import org.junit.jupiter.api.Test;
+import org.sonar.java.se.ProgramState.SymbolicValueSymbol;
+import org.sonar.java.se.symbolicvalues.RelationalSymbolicValue;
+import org.sonar.java.se.symbolicvalues.SymbolicValue;
+import org.sonar.java.se.symbolicvalues.SymbolicValueTestUtil;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OperandStackTest {
+
+  @Test
+  void push_pop_peek() {
+    SymbolicValue sv1 = new SymbolicValue();
+    SymbolicValue sv2 = new SymbolicValue();
+    OperandStack stack = OperandStack.EMPTY.push(valueSymbol(sv1)).push(valueSymbol(sv2));
+
+    assertThat(stack.size()).isEqualTo(2);
+    assertThat(stack.peek().symbolicValue()).isSameAs(sv2);
+    assertThat(stack.peek(1).symbolicValue()).isSameAs(sv1);
+    assertThat(stack.pop().peek().symbolicValue()).isSameAs(sv1);
+    assertThat(stack.pop().pop()).isSameAs(OperandStack.EMPTY);
+    assertThat(stack).extracting(SymbolicValueSymbol::symbolicValue).containsExactly(sv2, sv1);
+    assertThat(stack).hasToString("[" + sv2 + ", " + sv1 + "]");
+    assertThat(OperandStack.EMPTY).hasToString("[]");
+    assertThat(OperandStack.EMPTY.isEmpty()).isTrue();
+
+    assertThatThrownBy(OperandStack.EMPTY::pop).isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(OperandStack.EMPTY::peek).isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> stack.peek(2)).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void contains_values_and_their_operands() {
+    SymbolicValue sv1 = new SymbolicValue();
+    SymbolicValue sv2 = new SymbolicValue();
+    SymbolicValue sv3 = new SymbolicValue();
+    RelationalSymbolicValue relation = new RelationalSymbolicValue(RelationalSymbolicValue.Kind.EQUAL);
+    SymbolicValueTestUtil.computedFrom(relation, sv1, sv2);
+
+    OperandStack stack = OperandStack.EMPTY.push(valueSymbol(sv3)).push(valueSymbol(relation));
+    assertThat(stack.contains(relation)).isTrue();
+    assertThat(stack.contains(sv1)).isTrue();
+    assertThat(stack.contains(sv2)).isTrue();
+    assertThat(stack.contains(sv3)).isTrue();
+    assertThat(stack.contains(new SymbolicValue())).isFalse();
+
+    // an equal relation is contained as well
+    RelationalSymbolicValue sameRelation = new RelationalSymbolicValue(RelationalSymbolicValue.Kind.EQUAL);
+    SymbolicValueTestUtil.computedFrom(sameRelation, sv1, sv2);
+    assertThat(stack.contains(sameRelation)).isTrue();
+
+    OperandStack popped = stack.pop();
+    assertThat(popped.contains(sv3)).isTrue();
+    assertThat(popped.contains(sv1)).isFalse();
+    assertThat(popped.contains(relation)).isFalse();
+    assertThat(OperandStack.EMPTY.contains(sv3)).isFalse();
+  }
+
+  @Test
+  void equals_and_hash_code() {
+    SymbolicValue sv1 = new SymbolicValue();
+    SymbolicValue sv2 = new SymbolicValue();
+    OperandStack stack = OperandStack.EMPTY.push(valueSymbol(sv1)).push(valueSymbol(sv2));
+    OperandStack sameStack = OperandStack.EMPTY.push(valueSymbol(sv1)).push(valueSymbol(sv2));
+    OperandStack sharedBottom = stack.pop().push(valueSymbol(sv2));
+
+    assertThat(stack)
+      .isEqualTo(sameStack)
+      .isEqualTo(sharedBottom)
+      .hasSameHashCodeAs(sameStack)
+      .isNotEqualTo(OperandStack.EMPTY.push(valueSymbol(sv2)).push(valueSymbol(sv1)))
+      .isNotEqualTo(stack.pop())
+      .isNotEqualTo(stack.push(valueSymbol(sv1)))
+      .isNotEqualTo(null);
+    assertThat(stack.pop().pop()).isEqualTo(OperandStack.EMPTY).hasSameHashCodeAs(OperandStack.EMPTY);
+  }
+
+  private static SymbolicValueSymbol valueSymbol(SymbolicValue sv) {
+    return new SymbolicValueSymbol(sv, null);
+  }
+}
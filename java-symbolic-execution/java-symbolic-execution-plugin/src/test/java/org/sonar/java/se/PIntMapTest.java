@@ -0,0 +1,99 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PIntMapTest {
+
+  @Test
+  void put_get_remove() {
+    PIntMap<String> empty = PIntMap.empty();
+    assertThat(empty.isEmpty()).isTrue();
+    assertThat(empty.get(1)).isNull();
+    assertThat(empty.remove(1)).isSameAs(empty);
+
+    PIntMap<String> map = empty.put(1, "a").put(2, "b");
+    assertThat(map.size()).isEqualTo(2);
+    assertThat(map.get(1)).isEqualTo("a");
+    assertThat(map.get(2)).isEqualTo("b");
+    assertThat(map.get(3)).isNull();
+    assertThat(empty.get(1)).isNull();
+
+    assertThat(map.put(1, map.get(1))).isSameAs(map);
+    PIntMap<String> updated = map.put(1, "c");
+    assertThat(updated.size()).isEqualTo(2);
+    assertThat(updated.get(1)).isEqualTo("c");
+    assertThat(map.get(1)).isEqualTo("a");
+
+    PIntMap<String> removed = map.remove(1);
+    assertThat(removed.size()).isEqualTo(1);
+    assertThat(removed.get(1)).isNull();
+    assertThat(removed.get(2)).isEqualTo("b");
+    assertThat(map.get(1)).isEqualTo("a");
+    assertThat(removed.toString()).isEqualTo("{2=b}");
+  }
+
+  @Test
+  void keys_sharing_bits() {
+    // same lowest bits, so they are stored in nested nodes
+    int[] keys = {1, 1 + (1 << 5), 1 + (1 << 10), 1 + (1 << 30), 1 + (1 << 31), -1, 0, Integer.MIN_VALUE, Integer.MAX_VALUE};
+    PIntMap<Integer> map = PIntMap.empty();
+    for (int key : keys) {
+      map = map.put(key, key);
+    }
+    assertThat(map.size()).isEqualTo(keys.length);
+    for (int key : keys) {
+      assertThat(map.get(key)).isEqualTo(key);
+    }
+    for (int i = 0; i < keys.length; i++) {
+      map = map.remove(keys[i]);
+      assertThat(map.size()).isEqualTo(keys.length - i - 1);
+      assertThat(map.get(keys[i])).isNull();
+      for (int j = i + 1; j < keys.length; j++) {
+        assertThat(map.get(keys[j])).isEqualTo(keys[j]);
+      }
+    }
+    assertThat(map.isEmpty()).isTrue();
+  }
+
+  @Test
+  void behaves_like_a_map() {
+    Random random = new Random(42);
+    Map<Integer, Integer> expected = new HashMap<>();
+    PIntMap<Integer> map = PIntMap.empty();
+    for (int i = 0; i < 10_000; i++) {
+      int key = random.nextInt(2_000);
+      if (random.nextInt(3) == 0) {
+        expected.remove(key);
+        map = map.remove(key);
+      } else {
+        expected.put(key, i);
+        map = map.put(key, i);
+      }
+      assertThat(map.size()).isEqualTo(expected.size());
+    }
+    for (int key = 0; key < 2_000; key++) {
+      assertThat(map.get(key)).isEqualTo(expected.get(key));
+    }
+  }
+}
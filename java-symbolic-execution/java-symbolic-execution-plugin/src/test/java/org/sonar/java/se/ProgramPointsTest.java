@@ -0,0 +1,78 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.sonar.java.cfg.CFG;
+import org.sonar.java.se.utils.CFGTestUtils;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph.Block;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProgramPointsTest {
+
+  @Test
+  void program_points_are_shared_and_numbered_densely() {
+    CFG cfg = CFGTestUtils.buildCFG("void foo(boolean b) { if (b) { foo(true); } else { foo(false); } }");
+    ProgramPoints programPoints = new ProgramPoints(cfg);
+
+    Set<Integer> ids = new HashSet<>();
+    for (Block block : cfg.blocks()) {
+      ProgramPoint programPoint = programPoints.entry(block);
+      assertThat(programPoints.entry(block)).isSameAs(programPoint);
+      for (int i = 0; i < block.elements().size() + 2; i++) {
+        assertThat(programPoint.block).isSameAs(block);
+        assertThat(programPoint.i).isEqualTo(i);
+        assertThat(programPoints.get(block, i)).isSameAs(programPoint);
+        ids.add(programPoint.id);
+        if (i < block.elements().size() + 1) {
+          assertThat(programPoint.next()).isSameAs(programPoint.next());
+          programPoint = programPoint.next();
+        }
+      }
+    }
+    assertThat(ids).hasSize(programPoints.size());
+    assertThat(ids).allMatch(id -> id >= 0 && id < programPoints.size());
+  }
+
+  @Test
+  void canonical_program_point() {
+    CFG cfg = CFGTestUtils.buildCFG("void foo() { foo(); }");
+    ProgramPoints programPoints = new ProgramPoints(cfg);
+    Block block = cfg.blocks().get(0);
+    ProgramPoint built = new ProgramPoint(block).next();
+    assertThat(built.id).isEqualTo(-1);
+    assertThat(programPoints.canonical(built))
+      .isEqualTo(built)
+      .isSameAs(programPoints.get(block, 1));
+
+    assertThat(ProgramState.EMPTY_STATE.visitedPoint(programPoints.canonical(built), 1).numberOfTimeVisited(programPoints.get(block, 1))).isEqualTo(1);
+    assertThatThrownBy(() -> ProgramState.EMPTY_STATE.numberOfTimeVisited(built))
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessageStartingWith("Visits are only counted for program points of the explored CFG");
+    assertThatThrownBy(() -> ProgramState.EMPTY_STATE.visitedPoint(built, 1))
+      .isInstanceOf(IllegalStateException.class);
+
+    ProgramPoint last = programPoints.get(block, block.elements().size() + 1);
+    assertThatThrownBy(last::next)
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessageStartingWith("CFG Block has");
+  }
+}
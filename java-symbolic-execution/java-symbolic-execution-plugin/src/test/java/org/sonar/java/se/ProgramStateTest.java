@@ -16,6 +16,7 @@
  */
 package org.sonar.java.se;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import org.assertj.core.api.Assertions;
@@ -25,6 +26,7 @@ import org.sonar.java.se.ProgramState.Pop;
 import org.sonar.java.se.checks.UnclosedResourcesCheck;
 import org.sonar.java.se.constraint.BooleanConstraint;
 import org.sonar.java.se.constraint.Constraint;
+import org.sonar.java.se.constraint.ConstraintsByDomain;
 import org.sonar.java.se.constraint.ObjectConstraint;
 import org.sonar.java.se.symbolicvalues.RelationalSymbolicValue;
 import org.sonar.java.se.symbolicvalues.SymbolicValue;
@@ -50,6 +52,30 @@ class ProgramStateTest {
       .isEqualTo(state2);
   }
 
+  @Test
+  void subsumption() {
+    Symbol variable = variable("x");
+    SymbolicValue sv1 = new SymbolicValue();
+    SymbolicValue sv2 = new SymbolicValue();
+    ProgramState general = ProgramState.EMPTY_STATE.put(variable, sv1).addConstraint(sv1, ObjectConstraint.NOT_NULL);
+    ProgramState precise = general.addConstraint(sv2, BooleanConstraint.TRUE).addConstraint(sv1, BooleanConstraint.FALSE);
+
+    assertThat(precise.isSubsumedBy(general)).isTrue();
+    assertThat(general.isSubsumedBy(general)).isTrue();
+    assertThat(general.isSubsumedBy(precise)).isFalse();
+    // conflicting constraint
+    assertThat(general.addConstraint(sv2, BooleanConstraint.FALSE).isSubsumedBy(precise)).isFalse();
+    // different bindings, stack or exit value
+    assertThat(precise.put(variable("y"), sv2).isSubsumedBy(general)).isFalse();
+    assertThat(precise.stackValue(sv2).isSubsumedBy(general)).isFalse();
+    ProgramState stacked = precise.stackValue(sv2);
+    ProgramState exiting = stacked.storeExitValue();
+    // states are never changed in place
+    assertThat(stacked.exitValue()).isNull();
+    assertThat(exiting.exitValue()).isSameAs(sv2);
+    assertThat(exiting.clearStack().isSubsumedBy(general)).isFalse();
+  }
+
   @Test
   void testStackUnstack() {
     SymbolicValue sv1 = new SymbolicValue();
@@ -71,6 +97,14 @@ class ProgramStateTest {
     assertThat(values).hasSize(1);
     assertThat(values.get(0)).isSameAs(sv2);
     assertThat(state.peekValue()).isSameAs(sv1);
+
+    Symbol symbol = variable("a");
+    Pop unstackAll = state.stackValue(sv2, symbol).unstackValue(3);
+    assertThat(unstackAll.values).containsExactly(sv2, sv1);
+    assertThat(unstackAll.valuesAndSymbols).extracting(ProgramState.SymbolicValueSymbol::symbol).containsExactly(symbol, null);
+    assertThat(unstackAll.state.peekValue()).isNull();
+    assertThat(ProgramState.EMPTY_STATE.unstackValue(1).values).isEmpty();
+    assertThatThrownBy(() -> unstackAll.values.get(2)).isInstanceOf(IndexOutOfBoundsException.class);
   }
 
   @Test
@@ -200,6 +234,31 @@ class ProgramStateTest {
       .hasSameHashCodeAs(ps2);
   }
 
+  @Test
+  void hash_code_follows_updates() {
+    SymbolicValue sv1 = new SymbolicValue();
+    SymbolicValue sv2 = new SymbolicValue();
+    Symbol var = variable("var");
+    ProgramState ps1 = ProgramState.EMPTY_STATE.stackValue(sv1).stackValue(sv2);
+    ProgramState ps2 = ProgramState.EMPTY_STATE.stackValue(sv2).stackValue(sv2);
+    // differ below the top of the stack
+    assertThat(ps1.hashCode()).isNotEqualTo(ps2.hashCode());
+    assertThat(ps1.unstackValue(1).state).hasSameHashCodeAs(ProgramState.EMPTY_STATE.stackValue(sv1));
+    assertThat(ps1.unstackValue(2).state).hasSameHashCodeAs(ProgramState.EMPTY_STATE);
+    assertThat(ps1.clearStack()).hasSameHashCodeAs(ProgramState.EMPTY_STATE);
+
+    ProgramState ps3 = ProgramState.EMPTY_STATE.put(var, sv1).addConstraint(sv1, ObjectConstraint.NOT_NULL).addConstraint(sv1, BooleanConstraint.TRUE);
+    ProgramState ps4 = ProgramState.EMPTY_STATE.addConstraint(sv1, BooleanConstraint.TRUE).put(var, sv2).addConstraint(sv1, ObjectConstraint.NOT_NULL).put(var, sv1);
+    assertThat(ps3)
+      .isEqualTo(ps4)
+      .hasSameHashCodeAs(ps4);
+    assertThat(ps3.removeConstraintsOnDomain(sv1, BooleanConstraint.class).removeConstraintsOnDomain(sv1, ObjectConstraint.class))
+      .hasSameHashCodeAs(ProgramState.EMPTY_STATE.put(var, sv1));
+    assertThat(ProgramState.EMPTY_STATE.addConstraint(sv2, ObjectConstraint.NOT_NULL).cleanupConstraints(List.of()))
+      .isEqualTo(ProgramState.EMPTY_STATE)
+      .hasSameHashCodeAs(ProgramState.EMPTY_STATE);
+  }
+
   @Test
   void test_symbols_on_stack() {
     ProgramState ps = ProgramState.EMPTY_STATE;
@@ -238,4 +297,122 @@ class ProgramStateTest {
     assertThat(ps.getConstraint(sv2, constraint.getClass())).isEqualTo(constraint);
   }
 
+  @Test
+  void test_adding_constraint_transitively_follows_known_equalities() {
+    SymbolicValue sv1 = new SymbolicValue();
+    SymbolicValue sv2 = new SymbolicValue();
+    SymbolicValue sv3 = new SymbolicValue();
+    RelationalSymbolicValue equal = new RelationalSymbolicValue(RelationalSymbolicValue.Kind.EQUAL);
+    SymbolicValueTestUtil.computedFrom(equal, sv1, sv2);
+    RelationalSymbolicValue methodEquals = new RelationalSymbolicValue(RelationalSymbolicValue.Kind.METHOD_EQUALS);
+    SymbolicValueTestUtil.computedFrom(methodEquals, sv3, sv1);
+    RelationalSymbolicValue lessThan = new RelationalSymbolicValue(RelationalSymbolicValue.Kind.LESS_THAN);
+    SymbolicValueTestUtil.computedFrom(lessThan, sv2, sv3);
+    UnclosedResourcesCheck.ResourceConstraint constraint = UnclosedResourcesCheck.ResourceConstraint.OPEN;
+
+    ProgramState ps = ProgramState.EMPTY_STATE
+      .addConstraint(equal, BooleanConstraint.TRUE)
+      .addConstraint(methodEquals, BooleanConstraint.TRUE)
+      .addConstraint(lessThan, BooleanConstraint.TRUE);
+    ProgramState result = ps.addConstraintTransitively(sv1, constraint);
+    assertThat(result.getConstraint(sv2, constraint.getClass())).isEqualTo(constraint);
+    assertThat(result.getConstraint(sv3, constraint.getClass())).isEqualTo(constraint);
+
+    result = ps.addConstraintTransitively(sv2, constraint);
+    assertThat(result.getConstraint(sv1, constraint.getClass())).isEqualTo(constraint);
+    assertThat(result.getConstraint(sv3, constraint.getClass())).isNull();
+
+    result = ps.removeConstraintsOnDomain(equal, BooleanConstraint.class).addConstraintTransitively(sv1, constraint);
+    assertThat(result.getConstraint(sv2, constraint.getClass())).isNull();
+    assertThat(result.getConstraint(sv3, constraint.getClass())).isEqualTo(constraint);
+  }
+
+  @Test
+  void equal_symbolic_values_share_references() {
+    SymbolicValue sv1 = new SymbolicValue();
+    SymbolicValue sv2 = new SymbolicValue();
+    RelationalSymbolicValue relation = new RelationalSymbolicValue(RelationalSymbolicValue.Kind.EQUAL);
+    SymbolicValueTestUtil.computedFrom(relation, sv1, sv2);
+    RelationalSymbolicValue sameRelation = new RelationalSymbolicValue(RelationalSymbolicValue.Kind.EQUAL);
+    SymbolicValueTestUtil.computedFrom(sameRelation, sv2, sv1);
+    Symbol a = variable("a");
+    Symbol b = variable("b");
+
+    ProgramState ps = ProgramState.EMPTY_STATE.put(a, relation).put(b, sv1);
+    assertThat(ps.canReach(relation)).isTrue();
+    assertThat(ps.canReach(sameRelation)).isTrue();
+    assertThat(ps.canReach(sv1)).isTrue();
+    assertThat(ps.canReach(sv2)).isFalse();
+
+    ps = ps.put(a, sv2);
+    assertThat(ps.canReach(sameRelation)).isFalse();
+    assertThat(ps.canReach(sv2)).isTrue();
+  }
+
+  @Test
+  void known_relations_follow_constraints() {
+    SymbolicValue sv1 = new SymbolicValue();
+    SymbolicValue sv2 = new SymbolicValue();
+    RelationalSymbolicValue relation = new RelationalSymbolicValue(RelationalSymbolicValue.Kind.EQUAL);
+    SymbolicValueTestUtil.computedFrom(relation, sv1, sv2);
+    RelationalSymbolicValue otherRelation = new RelationalSymbolicValue(RelationalSymbolicValue.Kind.LESS_THAN);
+    SymbolicValueTestUtil.computedFrom(otherRelation, sv1, sv2);
+
+    ProgramState ps = ProgramState.EMPTY_STATE.addConstraint(relation, BooleanConstraint.TRUE);
+    assertThat(ps.knownRelations()).containsExactly(relation);
+    ps = ps.addConstraint(otherRelation, ObjectConstraint.NOT_NULL);
+    assertThat(ps.knownRelations()).containsExactly(relation);
+    ps = ps.addConstraint(otherRelation, BooleanConstraint.TRUE);
+    assertThat(ps.knownRelations()).containsExactlyInAnyOrder(relation, otherRelation);
+    assertThat(ps.knownRelationsByOperand().get(sv1)).containsExactlyInAnyOrder(relation, otherRelation);
+    assertThat(ps.knownRelationsByOperand().get(sv2)).containsExactlyInAnyOrder(relation, otherRelation);
+    ps = ps.removeConstraintsOnDomain(otherRelation, BooleanConstraint.class);
+    assertThat(ps.knownRelations()).containsExactly(relation);
+    assertThat(ps.knownRelationsByOperand().get(sv1)).containsExactly(relation);
+    assertThat(ps.replaceConstraints(relation, ConstraintsByDomain.empty()).knownRelations()).isEmpty();
+    assertThat(ps.replaceConstraints(relation, ConstraintsByDomain.empty()).knownRelationsByOperand().isEmpty()).isTrue();
+
+    ProgramState cleaned = ps.cleanupConstraints(List.of());
+    assertThat(cleaned.knownRelations()).containsExactlyInAnyOrderElementsOf(knownRelationsFromConstraints(cleaned));
+    cleaned = ps.cleanupDeadSymbols(Set.of(), List.of());
+    assertThat(cleaned.knownRelations()).containsExactlyInAnyOrderElementsOf(knownRelationsFromConstraints(cleaned));
+  }
+
+  @Test
+  void remove_dead_symbols() {
+    Symbol x = variable("x");
+    Symbol y = variable("y");
+    SymbolicValue sv1 = new SymbolicValue();
+    SymbolicValue sv2 = new SymbolicValue();
+    ProgramState ps = ProgramState.EMPTY_STATE
+      .put(x, sv1)
+      .put(y, sv2)
+      .addConstraint(sv1, ObjectConstraint.NOT_NULL)
+      .addConstraint(sv2, ObjectConstraint.NOT_NULL);
+
+    ProgramState cleaned = ps.removeDeadSymbols(List.of(x, variable("unbound")), List.of());
+    assertThat(cleaned.getValue(x)).isNull();
+    assertThat(cleaned.getConstraints(sv1)).isNull();
+    assertThat(cleaned.getValue(y)).isSameAs(sv2);
+    assertThat(cleaned.getConstraint(sv2, ObjectConstraint.class)).isEqualTo(ObjectConstraint.NOT_NULL);
+    assertThat(cleaned).isEqualTo(ProgramState.EMPTY_STATE.put(y, sv2).addConstraint(sv2, ObjectConstraint.NOT_NULL));
+
+    // the value is still referenced by another symbol
+    cleaned = ps.put(y, sv1).removeDeadSymbols(List.of(x), List.of());
+    assertThat(cleaned.getValue(x)).isNull();
+    assertThat(cleaned.getConstraint(sv1, ObjectConstraint.class)).isEqualTo(ObjectConstraint.NOT_NULL);
+
+    assertThat(ps.removeDeadSymbols(List.of(x), List.of(sv1))).isSameAs(ps);
+    assertThat(ps.removeDeadSymbols(List.of(), List.of())).isSameAs(ps);
+  }
+
+  private static Set<RelationalSymbolicValue> knownRelationsFromConstraints(ProgramState ps) {
+    Set<RelationalSymbolicValue> result = new HashSet<>();
+    ps.getValuesWithConstraints(BooleanConstraint.TRUE).stream()
+      .filter(RelationalSymbolicValue.class::isInstance)
+      .map(RelationalSymbolicValue.class::cast)
+      .forEach(result::add);
+    return result;
+  }
+
 }
@@ -0,0 +1,174 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+import org.sonar.api.config.internal.MapSettings;
+import org.sonar.java.se.checks.DivisionByZeroCheck;
+import org.sonar.java.se.checks.NullDereferenceCheck;
+import org.sonar.java.se.checks.SECheck;
+import org.sonar.java.se.checks.UnclosedResourcesCheck;
+import org.sonar.plugins.java.api.InputFileScannerContext;
+import org.sonar.plugins.java.api.caching.CacheContext;
+import org.sonar.plugins.java.api.caching.JavaReadCache;
+import org.sonar.plugins.java.api.caching.JavaWriteCache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SymbolicExecutionCacheTest {
+
+  private final Map<String, byte[]> previousAnalysis = new HashMap<>();
+  private final Map<String, byte[]> nextAnalysis = new HashMap<>();
+  private final JavaWriteCache writeCache = mock(JavaWriteCache.class);
+
+  @Test
+  void unchanged_file_explored_with_same_configuration_is_up_to_date() {
+    SymbolicExecutionCache cache = new SymbolicExecutionCache(List.of(new NullDereferenceCheck()), SymbolicExecutionSettings.DEFAULT);
+    InputFileScannerContext changed = context(inputFile("A.java", "class A {}", InputFile.Status.CHANGED), true);
+    assertThat(cache.isUpToDate(changed)).isFalse();
+    cache.store(changed);
+    assertThat(nextAnalysis).containsOnlyKeys("java:se:module:A.java");
+
+    // next analysis
+    previousAnalysis.putAll(nextAnalysis);
+    cache = new SymbolicExecutionCache(List.of(new NullDereferenceCheck()), SymbolicExecutionSettings.DEFAULT);
+    InputFileScannerContext unchanged = context(inputFile("A.java", "class A {}", InputFile.Status.SAME), true);
+    assertThat(cache.isUpToDate(unchanged)).isTrue();
+    // same answer for all the checks
+    assertThat(cache.isUpToDate(unchanged)).isTrue();
+    verify(writeCache).copyFromPrevious("java:se:module:A.java");
+    cache.store(unchanged);
+    verify(writeCache, never()).write(anyString(), any(byte[].class));
+  }
+
+  @Test
+  void file_is_not_up_to_date_when_configuration_changes() {
+    new SymbolicExecutionCache(List.of(new NullDereferenceCheck()), SymbolicExecutionSettings.DEFAULT)
+      .store(context(inputFile("A.java", "class A {}", InputFile.Status.ADDED), true));
+    previousAnalysis.putAll(nextAnalysis);
+    InputFileScannerContext unchanged = context(inputFile("A.java", "class A {}", InputFile.Status.SAME), true);
+
+    List<SECheck> otherChecks = List.of(new NullDereferenceCheck(), new DivisionByZeroCheck());
+    assertThat(new SymbolicExecutionCache(otherChecks, SymbolicExecutionSettings.DEFAULT).isUpToDate(unchanged)).isFalse();
+
+    SymbolicExecutionSettings otherSettings = SymbolicExecutionSettings.fromConfiguration(
+      new MapSettings().setProperty(SymbolicExecutionSettings.MAX_STEPS_KEY, 100).asConfig());
+    assertThat(new SymbolicExecutionCache(List.of(new NullDereferenceCheck()), otherSettings).isUpToDate(unchanged)).isFalse();
+
+    assertThat(new SymbolicExecutionCache(List.of(new NullDereferenceCheck()), SymbolicExecutionSettings.DEFAULT).isUpToDate(unchanged)).isTrue();
+  }
+
+  @Test
+  void file_is_not_up_to_date_when_rule_parameters_change() {
+    new SymbolicExecutionCache(List.of(new UnclosedResourcesCheck()), SymbolicExecutionSettings.DEFAULT)
+      .store(context(inputFile("A.java", "class A {}", InputFile.Status.ADDED), true));
+    previousAnalysis.putAll(nextAnalysis);
+    InputFileScannerContext unchanged = context(inputFile("A.java", "class A {}", InputFile.Status.SAME), true);
+
+    UnclosedResourcesCheck otherParameters = new UnclosedResourcesCheck();
+    otherParameters.excludedTypes = "java.io.FileInputStream";
+    assertThat(new SymbolicExecutionCache(List.of(otherParameters), SymbolicExecutionSettings.DEFAULT).isUpToDate(unchanged)).isFalse();
+    assertThat(new SymbolicExecutionCache(List.of(new UnclosedResourcesCheck()), SymbolicExecutionSettings.DEFAULT).isUpToDate(unchanged)).isTrue();
+  }
+
+  @Test
+  void file_is_up_to_date_when_only_performance_settings_change() {
+    new SymbolicExecutionCache(List.of(new NullDereferenceCheck()), SymbolicExecutionSettings.DEFAULT)
+      .store(context(inputFile("A.java", "class A {}", InputFile.Status.ADDED), true));
+    previousAnalysis.putAll(nextAnalysis);
+    InputFileScannerContext unchanged = context(inputFile("A.java", "class A {}", InputFile.Status.SAME), true);
+
+    SymbolicExecutionSettings otherSettings = SymbolicExecutionSettings.fromConfiguration(new MapSettings()
+      .setProperty(SymbolicExecutionSettings.PARALLELISM_KEY, 4)
+      .setProperty(SymbolicExecutionSettings.HASH_CONSING_KEY, true)
+      .setProperty(SymbolicExecutionSettings.METHOD_TIMEOUT_KEY, 1_000)
+      .setProperty(SymbolicExecutionSettings.FILE_TIMEOUT_KEY, 10_000)
+      .asConfig());
+    assertThat(new SymbolicExecutionCache(List.of(new NullDereferenceCheck()), otherSettings).isUpToDate(unchanged)).isTrue();
+  }
+
+  @Test
+  void file_is_not_up_to_date_when_content_differs() {
+    new SymbolicExecutionCache(List.of(), SymbolicExecutionSettings.DEFAULT)
+      .store(context(inputFile("A.java", "class A {}", InputFile.Status.ADDED), true));
+    previousAnalysis.putAll(nextAnalysis);
+
+    SymbolicExecutionCache cache = new SymbolicExecutionCache(List.of(), SymbolicExecutionSettings.DEFAULT);
+    assertThat(cache.isUpToDate(context(inputFile("A.java", "class A { }", InputFile.Status.SAME), true))).isFalse();
+    assertThat(cache.isUpToDate(context(inputFile("B.java", "class A {}", InputFile.Status.SAME), true))).isFalse();
+    verify(writeCache, never()).copyFromPrevious(anyString());
+  }
+
+  @Test
+  void nothing_is_cached_when_cache_is_disabled() {
+    SymbolicExecutionCache cache = new SymbolicExecutionCache(List.of(), SymbolicExecutionSettings.DEFAULT);
+    InputFileScannerContext context = context(inputFile("A.java", "class A {}", InputFile.Status.SAME), false);
+    cache.store(context);
+    assertThat(cache.isUpToDate(context)).isFalse();
+    assertThat(nextAnalysis).isEmpty();
+  }
+
+  @Test
+  void se_checks_follow_the_decision_of_the_visitor() {
+    NullDereferenceCheck check = new NullDereferenceCheck();
+    new SymbolicExecutionCache(List.of(check), SymbolicExecutionSettings.DEFAULT)
+      .store(context(inputFile("A.java", "class A {}", InputFile.Status.ADDED), true));
+    previousAnalysis.putAll(nextAnalysis);
+    InputFileScannerContext unchanged = context(inputFile("A.java", "class A {}", InputFile.Status.SAME), true);
+    // check not used by a visitor
+    assertThat(check.scanWithoutParsing(unchanged)).isFalse();
+
+    SymbolicExecutionVisitor sev = new SymbolicExecutionVisitor(List.of(check));
+    assertThat(sev.scanWithoutParsing(unchanged)).isTrue();
+    assertThat(check.scanWithoutParsing(unchanged)).isTrue();
+  }
+
+  private InputFileScannerContext context(InputFile inputFile, boolean cacheEnabled) {
+    JavaReadCache readCache = mock(JavaReadCache.class);
+    when(readCache.readBytes(anyString())).thenAnswer(invocation -> previousAnalysis.get(invocation.<String>getArgument(0)));
+    when(readCache.contains(anyString())).thenAnswer(invocation -> previousAnalysis.containsKey(invocation.<String>getArgument(0)));
+    doAnswer(invocation -> nextAnalysis.put(invocation.getArgument(0), invocation.getArgument(1)))
+      .when(writeCache).write(anyString(), any(byte[].class));
+    CacheContext cacheContext = mock(CacheContext.class);
+    when(cacheContext.isCacheEnabled()).thenReturn(cacheEnabled);
+    when(cacheContext.getReadCache()).thenReturn(readCache);
+    when(cacheContext.getWriteCache()).thenReturn(writeCache);
+    InputFileScannerContext context = mock(InputFileScannerContext.class);
+    when(context.getCacheContext()).thenReturn(cacheContext);
+    when(context.getInputFile()).thenReturn(inputFile);
+    return context;
+  }
+
+  private static InputFile inputFile(String path, String content, InputFile.Status status) {
+    return new TestInputFileBuilder("module", path)
+      .setContents(content)
+      .setStatus(status)
+      .build();
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.event.Level;
+import org.sonar.api.config.internal.MapSettings;
+import org.sonar.api.testfixtures.log.LogTesterJUnit5;
+import org.sonar.java.cfg.CFG;
+import org.sonar.java.se.utils.CFGTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SymbolicExecutionSettingsTest {
+
+  @RegisterExtension
+  public LogTesterJUnit5 logTester = new LogTesterJUnit5().setLevel(Level.WARN);
+
+  @Test
+  void default_settings() {
+    assertThat(SymbolicExecutionSettings.DEFAULT.parallelism()).isEqualTo(1);
+    assertThat(SymbolicExecutionSettings.DEFAULT.isParallel()).isFalse();
+
+    SymbolicExecutionSettings settings = SymbolicExecutionSettings.fromConfiguration(new MapSettings().asConfig());
+    assertThat(settings.parallelism()).isEqualTo(1);
+    assertThat(settings.isParallel()).isFalse();
+    assertThat(settings.explorationStrategy()).isEqualTo(WorkList.Strategy.DFS);
+    assertThat(settings.subsumption()).isFalse();
+    assertThat(settings.loopWidening()).isFalse();
+    assertThat(settings.hashConsing()).isFalse();
+    assertThat(settings.maxSteps()).isEqualTo(16_000);
+    assertThat(settings.adaptiveBudget()).isFalse();
+    assertThat(settings.maxStartingStates()).isEqualTo(1_024);
+    assertThat(settings.maxNestedBooleanStates()).isEqualTo(ExplodedGraphWalker.MAX_NESTED_BOOLEAN_STATES);
+    assertThat(settings.maxStateConstraints()).isEqualTo(75);
+    assertThat(settings.methodTimeout()).isZero();
+    assertThat(settings.fileTimeout()).isZero();
+    assertThat(settings.partialYields()).isFalse();
+  }
+
+  @Test
+  void subsumption() {
+    assertThat(settings(SymbolicExecutionSettings.SUBSUMPTION_KEY, "true").subsumption()).isTrue();
+    assertThat(settings(SymbolicExecutionSettings.SUBSUMPTION_KEY, "false").subsumption()).isFalse();
+    assertThat(settings(SymbolicExecutionSettings.SUBSUMPTION_KEY, "yes").subsumption()).isFalse();
+  }
+
+  @Test
+  void loop_widening() {
+    assertThat(settings(SymbolicExecutionSettings.LOOP_WIDENING_KEY, "true").loopWidening()).isTrue();
+    assertThat(settings(SymbolicExecutionSettings.LOOP_WIDENING_KEY, "false").loopWidening()).isFalse();
+  }
+
+  @Test
+  void hash_consing() {
+    assertThat(settings(SymbolicExecutionSettings.HASH_CONSING_KEY, "true").hashConsing()).isTrue();
+    assertThat(settings(SymbolicExecutionSettings.HASH_CONSING_KEY, "false").hashConsing()).isFalse();
+  }
+
+  @Test
+  void to_string_lists_all_values() {
+    assertThat(SymbolicExecutionSettings.DEFAULT).hasToString("parallelism=1, explorationStrategy=DFS, subsumption=false, loopWidening=false, "
+      + "hashConsing=false, maxSteps=16000, adaptiveBudget=false, maxStartingStates=1024, maxNestedBooleanStates=10000, maxStateConstraints=75, "
+      + "methodTimeout=0, fileTimeout=0, partialYields=false");
+  }
+
+  @Test
+  void partial_yields() {
+    assertThat(settings(SymbolicExecutionSettings.PARTIAL_YIELDS_KEY, "true").partialYields()).isTrue();
+  }
+
+  @Test
+  void budgets() {
+    assertThat(settings(SymbolicExecutionSettings.MAX_STEPS_KEY, "500").maxSteps()).isEqualTo(500);
+    assertThat(settings(SymbolicExecutionSettings.MAX_STEPS_KEY, "0").maxSteps()).isEqualTo(1);
+    assertThat(settings(SymbolicExecutionSettings.MAX_STARTING_STATES_KEY, "16").maxStartingStates()).isEqualTo(16);
+    assertThat(settings(SymbolicExecutionSettings.MAX_NESTED_BOOLEAN_STATES_KEY, "200").maxNestedBooleanStates()).isEqualTo(200);
+    assertThat(settings(SymbolicExecutionSettings.MAX_STATE_CONSTRAINTS_KEY, "30").maxStateConstraints()).isEqualTo(30);
+  }
+
+  @Test
+  void time_budgets() {
+    assertThat(settings(SymbolicExecutionSettings.METHOD_TIMEOUT_KEY, "200").methodTimeout()).isEqualTo(200L);
+    assertThat(settings(SymbolicExecutionSettings.FILE_TIMEOUT_KEY, "5000").fileTimeout()).isEqualTo(5000L);
+    assertThat(settings(SymbolicExecutionSettings.FILE_TIMEOUT_KEY, "-1").fileTimeout()).isZero();
+  }
+
+  @Test
+  void adaptive_step_budget() {
+    CFG small = CFGTestUtils.buildCFG("void foo() { a(); }");
+    CFG large = CFGTestUtils.buildCFG("void foo(boolean b) { " + "if (b) { a(); } else { b(); } ".repeat(200) + "}");
+
+    SymbolicExecutionSettings fixed = settings(SymbolicExecutionSettings.MAX_STEPS_KEY, "10000");
+    assertThat(fixed.maxSteps(small)).isEqualTo(10_000);
+    assertThat(fixed.maxSteps(large)).isEqualTo(10_000);
+
+    SymbolicExecutionSettings adaptive = SymbolicExecutionSettings.fromConfiguration(new MapSettings()
+      .setProperty(SymbolicExecutionSettings.MAX_STEPS_KEY, 10_000)
+      .setProperty(SymbolicExecutionSettings.ADAPTIVE_BUDGET_KEY, true)
+      .asConfig());
+    assertThat(adaptive.adaptiveBudget()).isTrue();
+    // bounded by a quarter and four times the maximum number of steps
+    assertThat(adaptive.maxSteps(small)).isEqualTo(2_500);
+    assertThat(adaptive.maxSteps(large)).isEqualTo(40_000);
+  }
+
+  @Test
+  void parallelism() {
+    assertThat(settings(SymbolicExecutionSettings.PARALLELISM_KEY, " 4 ").parallelism()).isEqualTo(4);
+    assertThat(settings(SymbolicExecutionSettings.PARALLELISM_KEY, "4").isParallel()).isTrue();
+    assertThat(settings(SymbolicExecutionSettings.PARALLELISM_KEY, "0").parallelism()).isEqualTo(1);
+    assertThat(settings(SymbolicExecutionSettings.PARALLELISM_KEY, "-3").parallelism()).isEqualTo(1);
+  }
+
+  @Test
+  void exploration_strategy() {
+    assertThat(settings(SymbolicExecutionSettings.EXPLORATION_STRATEGY_KEY, "bfs").explorationStrategy()).isEqualTo(WorkList.Strategy.BFS);
+    assertThat(settings(SymbolicExecutionSettings.EXPLORATION_STRATEGY_KEY, " RPO ").explorationStrategy()).isEqualTo(WorkList.Strategy.RPO);
+    assertThat(settings(SymbolicExecutionSettings.EXPLORATION_STRATEGY_KEY, "dfs").explorationStrategy()).isEqualTo(WorkList.Strategy.DFS);
+  }
+
+  @Test
+  void invalid_value_falls_back_to_default() {
+    assertThat(settings(SymbolicExecutionSettings.PARALLELISM_KEY, "many").parallelism()).isEqualTo(1);
+    assertThat(settings(SymbolicExecutionSettings.EXPLORATION_STRATEGY_KEY, "random").explorationStrategy()).isEqualTo(WorkList.Strategy.DFS);
+    assertThat(logTester.logs(Level.WARN)).containsExactly(
+      "Invalid value 'many' for property 'sonar.java.se.parallelism', using default value 1.",
+      "Invalid value 'random' for property 'sonar.java.se.explorationStrategy', using default value DFS.");
+  }
+
+  static SymbolicExecutionSettings settings(String key, String value) {
+    return SymbolicExecutionSettings.fromConfiguration(new MapSettings().setProperty(key, value).asConfig());
+  }
+
+}
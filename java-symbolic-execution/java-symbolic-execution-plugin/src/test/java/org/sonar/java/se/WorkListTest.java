@@ -0,0 +1,110 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.sonar.api.config.internal.MapSettings;
+import org.sonar.java.cfg.CFG;
+import org.sonar.java.se.checks.NullDereferenceCheck;
+import org.sonar.java.se.utils.CFGTestUtils;
+import org.sonar.java.se.xproc.MethodBehavior;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph.Block;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.sonar.java.se.utils.SETestUtils.createSymbolicExecutionVisitor;
+
+class WorkListTest {
+
+  private static final CFG CFG = CFGTestUtils.buildCFG("void foo(boolean a) { if (a) { x(); } else { y(); } z(); } void x() {} void y() {} void z() {}");
+  private static final Block TRUE_BLOCK = CFG.entryBlock().trueBlock();
+  private static final Block JOIN_BLOCK = TRUE_BLOCK.successors().iterator().next();
+
+  @Test
+  void depth_first() {
+    WorkList workList = WorkList.create(WorkList.Strategy.DFS, CFG);
+    assertThat(workList).isInstanceOf(WorkList.DepthFirst.class);
+    ExplodedGraph.Node[] nodes = pushBranchThenJoin(workList);
+    assertThat(workList.peek()).isSameAs(nodes[1]);
+    assertThat(workList.pop()).isSameAs(nodes[1]);
+    assertThat(workList.pop()).isSameAs(nodes[0]);
+    assertThat(workList.isEmpty()).isTrue();
+    assertThat(workList.peek()).isNull();
+  }
+
+  @Test
+  void breadth_first() {
+    WorkList workList = WorkList.create(WorkList.Strategy.BFS, CFG);
+    ExplodedGraph.Node[] nodes = pushBranchThenJoin(workList);
+    assertThat(workList.peek()).isSameAs(nodes[0]);
+    assertThat(workList.pop()).isSameAs(nodes[0]);
+    assertThat(workList.pop()).isSameAs(nodes[1]);
+    assertThat(workList.isEmpty()).isTrue();
+  }
+
+  @Test
+  void reverse_post_order() {
+    WorkList workList = WorkList.create(WorkList.Strategy.RPO, CFG);
+    ExplodedGraph.Node join = node(JOIN_BLOCK);
+    ExplodedGraph.Node branch = node(TRUE_BLOCK);
+    ExplodedGraph.Node entry = node(CFG.entryBlock());
+    workList.push(join);
+    workList.push(branch);
+    workList.push(entry);
+    assertThat(workList).hasSize(3).containsExactlyInAnyOrder(join, branch, entry);
+    // the join point is explored only once all the paths reaching it are explored
+    assertThat(workList.peek()).isSameAs(entry);
+    assertThat(workList.pop()).isSameAs(entry);
+    assertThat(workList.pop()).isSameAs(branch);
+    assertThat(workList.pop()).isSameAs(join);
+    assertThat(workList.isEmpty()).isTrue();
+    assertThat(workList.peek()).isNull();
+  }
+
+  @ParameterizedTest
+  @EnumSource(WorkList.Strategy.class)
+  void strategies_compute_same_behaviors(WorkList.Strategy strategy) {
+    SymbolicExecutionSettings settings = SymbolicExecutionSettings.fromConfiguration(
+      new MapSettings().setProperty(SymbolicExecutionSettings.EXPLORATION_STRATEGY_KEY, strategy.name().toLowerCase(Locale.ROOT)).asConfig());
+    assertThat(settings.explorationStrategy()).isEqualTo(strategy);
+
+    SymbolicExecutionVisitor reference = createSymbolicExecutionVisitor("src/test/resources/se/MethodYields.java", new NullDereferenceCheck());
+    SymbolicExecutionVisitor sev = createSymbolicExecutionVisitor("src/test/resources/se/MethodYields.java", settings, new NullDereferenceCheck());
+
+    assertThat(sev.behaviorCache.behaviors.keySet()).containsExactlyElementsOf(reference.behaviorCache.behaviors.keySet());
+    reference.behaviorCache.behaviors.forEach((signature, mb) -> {
+      MethodBehavior behavior = sev.behaviorCache.behaviors.get(signature);
+      assertThat(behavior.isComplete()).isEqualTo(mb.isComplete());
+      assertThat(behavior.yields()).containsExactlyInAnyOrderElementsOf(mb.yields());
+    });
+  }
+
+  private static ExplodedGraph.Node[] pushBranchThenJoin(WorkList workList) {
+    ExplodedGraph.Node branch = node(TRUE_BLOCK);
+    ExplodedGraph.Node join = node(JOIN_BLOCK);
+    workList.push(branch);
+    workList.push(join);
+    assertThat(workList).hasSize(2);
+    return new ExplodedGraph.Node[] {branch, join};
+  }
+
+  private static ExplodedGraph.Node node(Block block) {
+    return new ExplodedGraph().node(new ProgramPoint(block), ProgramState.EMPTY_STATE);
+  }
+}
@@ -118,6 +118,19 @@ class ConstraintsByDomainTest {
     assertThat(c1.hashCode()).isNotEqualTo(c2.hashCode());
   }
 
+  @Test
+  void equality_does_not_depend_on_insertion_order() {
+    ConstraintsByDomain c1 = ConstraintsByDomain.empty().put(ObjectConstraint.NOT_NULL).put(BooleanConstraint.TRUE);
+    ConstraintsByDomain c2 = ConstraintsByDomain.empty().put(BooleanConstraint.FALSE).put(ObjectConstraint.NOT_NULL).put(BooleanConstraint.TRUE);
+    assertThat(c1).isEqualTo(c2).hasSameHashCodeAs(c2);
+    assertThat(c1.domains()).containsExactlyElementsOf(c2.domains().toList());
+
+    ConstraintsByDomain c3 = c2.remove(ObjectConstraint.class);
+    assertThat(c3.get(ObjectConstraint.class)).isNull();
+    assertThat(c3.get(BooleanConstraint.class)).isEqualTo(BooleanConstraint.TRUE);
+    assertThat(c3).isEqualTo(ConstraintsByDomain.empty().put(BooleanConstraint.TRUE));
+  }
+
   @Test
   void test_has_constraint() {
     ConstraintsByDomain c = ConstraintsByDomain.empty();
@@ -28,12 +28,15 @@ import org.sonar.api.batch.rule.ActiveRules;
 import org.sonar.api.batch.rule.CheckFactory;
 import org.sonar.api.batch.rule.internal.ActiveRulesBuilder;
 import org.sonar.api.batch.rule.internal.NewActiveRule;
+import org.sonar.api.config.Configuration;
+import org.sonar.api.config.internal.MapSettings;
 import org.sonar.api.internal.SonarRuntimeImpl;
 import org.sonar.api.rule.RuleKey;
 import org.sonar.api.server.rule.RulesDefinition;
 import org.sonar.api.utils.Version;
 import org.sonar.check.Rule;
 import org.sonar.java.checks.verifier.TestCheckRegistrarContext;
+import org.sonar.java.se.SymbolicExecutionSettings;
 import org.sonar.java.se.checks.SECheck;
 import org.sonar.plugins.java.api.CheckRegistrar;
 
@@ -64,6 +67,17 @@ class JavaSECheckRegistrarTest {
     assertThat(context.testRuleKeys).isEmpty();
   }
 
+  @Test
+  void register_rules_with_configuration() {
+    Configuration configuration = new MapSettings().setProperty(SymbolicExecutionSettings.PARALLELISM_KEY, 2).asConfig();
+    CheckRegistrar registrar = new JavaSECheckRegistrar(null, configuration);
+    TestCheckRegistrarContext context = new TestCheckRegistrarContext();
+
+    registrar.register(context, new CheckFactory(activeRules));
+
+    assertThat(context.mainRuleKeys).map(RuleKey::toString).containsExactlyInAnyOrder(getRuleKeysWithRepo());
+  }
+
   @Test
   void rules_definition() {
     SonarRuntime sonarRuntime = SonarRuntimeImpl.forSonarQube(Version.create(10, 2), SonarQubeSide.SERVER, SonarEdition.ENTERPRISE);
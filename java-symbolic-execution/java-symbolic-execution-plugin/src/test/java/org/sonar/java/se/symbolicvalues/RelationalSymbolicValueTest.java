@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Supplier;
@@ -57,6 +58,7 @@ import static org.sonar.java.se.constraint.BooleanConstraint.TRUE;
 import static org.sonar.java.se.symbolicvalues.RelationState.FULFILLED;
 import static org.sonar.java.se.symbolicvalues.RelationState.UNFULFILLED;
 import static org.sonar.java.se.symbolicvalues.RelationalSymbolicValue.Kind.EQUAL;
+import static org.sonar.java.se.symbolicvalues.RelationalSymbolicValue.Kind.LESS_THAN;
 import static org.sonar.java.se.symbolicvalues.RelationalSymbolicValue.Kind.METHOD_EQUALS;
 import static org.sonar.java.se.symbolicvalues.RelationalSymbolicValue.Kind.NOT_EQUAL;
 import static org.sonar.java.se.symbolicvalues.SymbolicValue.NULL_LITERAL;
@@ -512,15 +514,47 @@ class RelationalSymbolicValueTest {
   }
 
   @Test
-  void too_many_relationship_should_stop_se_engine() {
+  void many_relationships_should_not_stop_se_engine() {
     logTester.setLevel(Level.TRACE);
     SETestUtils.createSymbolicExecutionVisitor("src/test/files/se/ExceedTransitiveLimit.java", new NullDereferenceCheck());
-    String exceptionMessage = "reached maximum number of transitive relations generated for method hashCode in class ExceedTransitiveLimit";
     assertThat(logTester.logs(Level.DEBUG))
-      .contains("Could not complete symbolic execution: " + exceptionMessage);
-    assertThat(logTester.logs(Level.TRACE))
-      .hasSize(1)
-      .allMatch(trace -> trace.startsWith("org.sonar.java.se.ExplodedGraphWalker$MaximumStepsReachedException: " + exceptionMessage));
+      .noneMatch(log -> log.contains("reached maximum number of transitive relations"));
+  }
+
+  @Test
+  void transitive_relations_only_combine_relations_sharing_an_operand() {
+    // closed chain sv0 < sv1 < ... < sv149, as stored in program states
+    int chainLength = 150;
+    SymbolicValue[] sv = new SymbolicValue[chainLength];
+    Set<RelationalSymbolicValue> known = new HashSet<>();
+    for (int i = 0; i < chainLength; i++) {
+      sv[i] = new SymbolicValue();
+      for (int j = 0; j < i; j++) {
+        known.add(new RelationalSymbolicValue(LESS_THAN, sv[j], sv[i]));
+      }
+    }
+    SymbolicValue last = new SymbolicValue();
+    RelationalSymbolicValue relation = new RelationalSymbolicValue(LESS_THAN, sv[chainLength - 1], last);
+    Set<RelationalSymbolicValue> transitive = relation.transitiveRelations(known);
+    assertThat(transitive)
+      .hasSize(chainLength - 1)
+      .contains(new RelationalSymbolicValue(LESS_THAN, sv[0], last));
+  }
+
+  @Test
+  void too_many_combined_relations_should_stop() {
+    int chainLength = 400;
+    SymbolicValue[] sv = new SymbolicValue[chainLength];
+    Set<RelationalSymbolicValue> known = new HashSet<>();
+    for (int i = 0; i < chainLength; i++) {
+      sv[i] = new SymbolicValue();
+      for (int j = 0; j < i; j++) {
+        known.add(new RelationalSymbolicValue(LESS_THAN, sv[j], sv[i]));
+      }
+    }
+    RelationalSymbolicValue relation = new RelationalSymbolicValue(LESS_THAN, sv[chainLength - 1], new SymbolicValue());
+    assertThatThrownBy(() -> relation.transitiveRelations(known))
+      .isInstanceOf(RelationalSymbolicValue.TransitiveRelationExceededException.class);
   }
 
   @Test
@@ -16,11 +16,16 @@
  */
 package org.sonar.java.se.symbolicvalues;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.Test;
+import org.sonar.java.se.ExplodedGraphWalker;
+import org.sonar.java.se.ProgramState;
 import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.semantic.Type;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -55,6 +60,38 @@ class SymbolicValueTest {
       .isNotEqualTo(new SymbolicValue.ExceptionalSymbolicValue(null));
   }
 
+  @Test
+  void ids_are_dense_within_an_arena() {
+    SymbolicValue.IdArena previous = SymbolicValue.IdArena.enter();
+    try {
+      assertThat(new SymbolicValue()).hasToString("SV_3");
+      assertThat(new SymbolicValue()).hasToString("SV_4");
+
+      SymbolicValue.IdArena outer = SymbolicValue.IdArena.enter();
+      assertThat(new SymbolicValue()).hasToString("SV_3");
+      SymbolicValue.IdArena.restore(outer);
+
+      assertThat(new SymbolicValue()).hasToString("SV_5");
+    } finally {
+      SymbolicValue.IdArena.restore(previous);
+    }
+  }
+
+  @Test
+  void max_nested_states_is_restored_after_exploration() {
+    List<ProgramState> states = List.of(ProgramState.EMPTY_STATE, ProgramState.EMPTY_STATE);
+    Integer previous = SymbolicValue.BooleanExpressionSymbolicValue.enterMaxNestedStates(1);
+    try {
+      assertThatThrownBy(() -> SymbolicValue.BooleanExpressionSymbolicValue.addStates(new ArrayList<>(), states))
+        .isInstanceOf(ExplodedGraphWalker.TooManyNestedBooleanStatesException.class);
+    } finally {
+      SymbolicValue.BooleanExpressionSymbolicValue.restoreMaxNestedStates(previous);
+    }
+    List<ProgramState> result = new ArrayList<>();
+    SymbolicValue.BooleanExpressionSymbolicValue.addStates(result, states);
+    assertThat(result).hasSize(2);
+  }
+
   @Test
   void test_computed_from() {
     SymbolicValue symbolicValue = new SymbolicValue();
@@ -31,6 +31,7 @@ import org.sonar.java.model.DefaultJavaFileScannerContext;
 import org.sonar.java.model.JavaTree;
 import org.sonar.java.model.JavaVersionImpl;
 import org.sonar.java.se.Pair;
+import org.sonar.java.se.SymbolicExecutionSettings;
 import org.sonar.java.se.SymbolicExecutionVisitor;
 import org.sonar.java.se.checks.SECheck;
 import org.sonar.java.se.xproc.MethodBehavior;
@@ -55,11 +56,19 @@ public class SETestUtils {
     return createSymbolicExecutionVisitorAndSemantic(fileName, checks).a;
   }
 
+  public static SymbolicExecutionVisitor createSymbolicExecutionVisitor(String fileName, SymbolicExecutionSettings settings, SECheck... checks) {
+    return createSymbolicExecutionVisitorAndSemantic(fileName, settings, checks).a;
+  }
+
   public static Pair<SymbolicExecutionVisitor, Sema> createSymbolicExecutionVisitorAndSemantic(String fileName, SECheck... checks) {
+    return createSymbolicExecutionVisitorAndSemantic(fileName, SymbolicExecutionSettings.DEFAULT, checks);
+  }
+
+  public static Pair<SymbolicExecutionVisitor, Sema> createSymbolicExecutionVisitorAndSemantic(String fileName, SymbolicExecutionSettings settings, SECheck... checks) {
     InputFile inputFile = InternalInputFile.inputFile("", new File(fileName));
     JavaTree.CompilationUnitTreeImpl cut = (JavaTree.CompilationUnitTreeImpl) JParserTestUtils.parse(inputFile.file(), CLASS_PATH);
     Sema semanticModel = cut.sema;
-    SymbolicExecutionVisitor sev = new SymbolicExecutionVisitor(Arrays.asList(checks));
+    SymbolicExecutionVisitor sev = new SymbolicExecutionVisitor(Arrays.asList(checks), settings);
     sev.scanFile(new DefaultJavaFileScannerContext(cut, inputFile, semanticModel, null, new JavaVersionImpl(8), true, false));
     return new Pair<>(sev, semanticModel);
   }
@@ -25,11 +25,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.api.condition.EnabledForJreRange;
 import org.junit.jupiter.api.condition.JRE;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.slf4j.event.Level;
 import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.config.internal.MapSettings;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
 import org.sonar.java.checks.verifier.TestUtils;
 import org.sonar.java.checks.verifier.internal.InternalInputFile;
@@ -41,6 +43,7 @@ import org.sonar.java.se.CheckerDispatcher;
 import org.sonar.java.se.Pair;
 import org.sonar.java.se.ProgramState;
 import org.sonar.java.se.SECheckVerifier;
+import org.sonar.java.se.SymbolicExecutionSettings;
 import org.sonar.java.se.SymbolicExecutionVisitor;
 import org.sonar.java.se.checks.BooleanGratuitousExpressionsCheck;
 import org.sonar.java.se.checks.ConditionalUnreachableCodeCheck;
@@ -64,6 +67,7 @@ import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.sonar.java.checks.verifier.TestUtils.mainCodeSourcesPath;
 import static org.sonar.java.se.utils.SETestUtils.createSymbolicExecutionVisitor;
 import static org.sonar.java.se.utils.SETestUtils.createSymbolicExecutionVisitorAndSemantic;
@@ -79,12 +83,11 @@ class BehaviorCacheTest {
     SymbolicExecutionVisitor sev = createSymbolicExecutionVisitor("src/test/resources/se/MethodBehavior.java", new NullDereferenceCheck());
     assertThat(sev.behaviorCache.behaviors.entrySet()).hasSize(4);
     assertThat(sev.behaviorCache.behaviors.values().stream().filter(mb -> mb != null).count()).isEqualTo(4);
-    // check order of method exploration : last is the topMethod as it requires the other to get its behavior.
-    // Then, as we explore fully a path before switching to another one (see the LIFO in EGW) : qix is handled before foo.
+    // check order of method exploration : callees are explored before the topMethod, in the order of their calls.
     assertThat(sev.behaviorCache.behaviors.keySet().stream().toList()).containsSequence(
-      "MethodBehavior#topMethod(Z)Z",
       "MethodBehavior#bar(Z)Z",
       "MethodBehavior#foo(Z)Z",
+      "MethodBehavior#topMethod(Z)Z",
       "MethodBehavior#independent()V");
 
     // method which can be overridden should not have behaviors: 'abstractMethod', 'publicMethod', 'nativeMethod'
@@ -114,6 +117,57 @@ class BehaviorCacheTest {
     assertThat(sev.behaviorCache.behaviors.keySet().iterator().next()).contains("#foo");
   }
 
+  @Test
+  void parallel_exploration_computes_same_behaviors() {
+    SymbolicExecutionSettings settings = SymbolicExecutionSettings.fromConfiguration(
+      new MapSettings().setProperty(SymbolicExecutionSettings.PARALLELISM_KEY, 4).asConfig());
+    SymbolicExecutionVisitor sequential = createSymbolicExecutionVisitor("src/test/resources/se/MethodBehavior.java", new NullDereferenceCheck());
+    SymbolicExecutionVisitor parallel = createSymbolicExecutionVisitor("src/test/resources/se/MethodBehavior.java", settings, new NullDereferenceCheck());
+
+    assertThat(parallel.behaviorCache.behaviors.keySet()).containsExactlyInAnyOrderElementsOf(sequential.behaviorCache.behaviors.keySet());
+    sequential.behaviorCache.behaviors.forEach((signature, mb) -> {
+      MethodBehavior parallelBehavior = parallel.behaviorCache.behaviors.get(signature);
+      assertThat(parallelBehavior.isComplete()).isEqualTo(mb.isComplete());
+      assertThat(parallelBehavior.yields()).hasSameSizeAs(mb.yields());
+    });
+
+    SymbolicExecutionVisitor recursive = createSymbolicExecutionVisitor("src/test/resources/se/RecursiveCall.java", settings, new NullDereferenceCheck());
+    assertThat(recursive.behaviorCache.behaviors).hasSize(1);
+  }
+
+  @Test
+  @Timeout(60)
+  void parallel_exploration_of_mutually_recursive_methods_does_not_deadlock() {
+    SymbolicExecutionSettings settings = SymbolicExecutionSettings.fromConfiguration(
+      new MapSettings().setProperty(SymbolicExecutionSettings.PARALLELISM_KEY, 4).asConfig());
+    SymbolicExecutionVisitor sev = createSymbolicExecutionVisitor("src/test/resources/se/MutualRecursion.java", settings, new NullDereferenceCheck());
+
+    assertThat(sev.behaviorCache.behaviors.keySet()).containsExactlyInAnyOrder(
+      "MutualRecursion#isEven(I)Z",
+      "MutualRecursion#isOdd(I)Z",
+      "MutualRecursion#helper(Ljava/lang/Object;)I");
+    assertThat(sev.behaviorCache.behaviors.values()).allMatch(MethodBehavior::isVisited);
+  }
+
+  @Test
+  void behavior_computation_is_claimed_only_once() {
+    SymbolicExecutionVisitor sev = createSymbolicExecutionVisitor("src/test/resources/se/RecursiveCall.java", new NullDereferenceCheck());
+    MethodBehavior foo = getMethodBehavior(sev, "foo");
+    Symbol.MethodSymbol symbol = mock(Symbol.MethodSymbol.class);
+    when(symbol.signature()).thenReturn(foo.signature());
+    // already computed
+    assertThat(sev.behaviorCache.startComputation(symbol)).isNull();
+
+    when(symbol.signature()).thenReturn("RecursiveCall#bar(I)I");
+    MethodBehavior bar = sev.behaviorCache.startComputation(symbol);
+    assertThat(bar).isNotNull();
+    // being computed
+    assertThat(sev.behaviorCache.startComputation(symbol)).isNull();
+    sev.behaviorCache.endComputation(bar);
+    // not visited, can be claimed again
+    assertThat(sev.behaviorCache.startComputation(symbol)).isSameAs(bar);
+  }
+
   @Test
   void interrupted_exploration_does_not_create_method_yields() {
     SymbolicExecutionVisitor sev =
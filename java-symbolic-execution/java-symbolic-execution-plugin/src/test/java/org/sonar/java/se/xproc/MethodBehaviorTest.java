@@ -20,7 +20,9 @@ import java.util.List;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.junit.jupiter.api.Test;
+import org.sonar.api.config.internal.MapSettings;
 import org.sonar.java.se.Pair;
+import org.sonar.java.se.SymbolicExecutionSettings;
 import org.sonar.java.se.SymbolicExecutionVisitor;
 import org.sonar.java.se.checks.NullDereferenceCheck;
 import org.sonar.java.se.constraint.BooleanConstraint;
@@ -171,6 +173,55 @@ class MethodBehaviorTest {
     assertThat(resultConstraints).contains(ObjectConstraint.NULL, ObjectConstraint.NOT_NULL);
   }
 
+  @Test
+  void interrupted_exploration_keeps_partial_yields() {
+    SymbolicExecutionSettings settings = SymbolicExecutionSettings.fromConfiguration(new MapSettings()
+      .setProperty(SymbolicExecutionSettings.PARTIAL_YIELDS_KEY, true)
+      .setProperty(SymbolicExecutionSettings.EXPLORATION_STRATEGY_KEY, "bfs")
+      .setProperty(SymbolicExecutionSettings.MAX_STEPS_KEY, 500)
+      .asConfig());
+    SymbolicExecutionVisitor sev = createSymbolicExecutionVisitor("src/test/resources/se/PartialYields.java", settings, new NullDereferenceCheck());
+
+    MethodBehavior mb = getMethodBehavior(sev, "helper");
+    assertThat(mb.isVisited()).isTrue();
+    assertThat(mb.isComplete()).isFalse();
+    assertThat(mb.isPartial()).isTrue();
+    // only the path returning null has been fully explored
+    assertThat(mb.happyPathYields().map(y -> y.resultConstraint().get(ObjectConstraint.class))).containsExactly(ObjectConstraint.NULL);
+  }
+
+  @Test
+  void interrupted_exploration_drops_yields_by_default() {
+    SymbolicExecutionSettings settings = SymbolicExecutionSettings.fromConfiguration(new MapSettings()
+      .setProperty(SymbolicExecutionSettings.EXPLORATION_STRATEGY_KEY, "bfs")
+      .setProperty(SymbolicExecutionSettings.MAX_STEPS_KEY, 500)
+      .asConfig());
+    SymbolicExecutionVisitor sev = createSymbolicExecutionVisitor("src/test/resources/se/PartialYields.java", settings, new NullDereferenceCheck());
+
+    MethodBehavior mb = getMethodBehavior(sev, "helper");
+    assertThat(mb.isVisited()).isTrue();
+    assertThat(mb.isComplete()).isFalse();
+    assertThat(mb.isPartial()).isFalse();
+    assertThat(mb.yields()).isEmpty();
+  }
+
+  @Test
+  void partial_behaviors_are_not_equal_to_complete_ones() {
+    MethodBehavior complete = newMethodBehavior("foo()Ljava/lang/Object;");
+    addYield(complete, ObjectConstraint.NULL);
+    complete.completed();
+
+    MethodBehavior partial = newMethodBehavior("foo()Ljava/lang/Object;");
+    addYield(partial, ObjectConstraint.NULL);
+    partial.partiallyCompleted();
+
+    assertThat(partial.isPartial()).isTrue();
+    assertThat(partial.isComplete()).isFalse();
+    assertThat(partial.isVisited()).isTrue();
+    assertThat(partial).isNotEqualTo(complete);
+    assertThat(partial.hashCode()).isNotEqualTo(complete.hashCode());
+  }
+
   @Test
   void equality() {
     MethodBehavior mb = newMethodBehavior("foo()Ljava/lang/Object;");
@@ -0,0 +1,28 @@
+class MutualRecursion {
+
+  private static boolean isEven(int n) {
+    if (n == 0) {
+      return true;
+    }
+    return isOdd(n - 1);
+  }
+
+  private static boolean isOdd(int n) {
+    if (n == 0) {
+      return false;
+    }
+    return isEven(n - 1);
+  }
+
+  private static int helper(Object o) {
+    return o == null ? 0 : o.hashCode();
+  }
+
+  int first(Object o) {
+    return helper(o) + (isEven(helper(o)) ? 1 : 0);
+  }
+
+  int second(Object o) {
+    return helper(o) + (isOdd(helper(o)) ? 1 : 0);
+  }
+}